@@ -0,0 +1,44 @@
+package org.folio.benchmark;
+
+import org.folio.rest.persist.Criteria.Criteria;
+import org.folio.rest.persist.Criteria.Criterion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.folio.dataimport.util.DaoUtil.constructCriteria;
+
+/**
+ * Cost of building the id criteria used by getById, without executing it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CriteriaBenchmark {
+
+  private static final String ID_FIELD = "'id'";
+
+  private final String id = UUID.randomUUID().toString();
+
+  @Benchmark
+  public Criteria constructIdCriteria() throws Exception {
+    return constructCriteria(ID_FIELD, id);
+  }
+
+  @Benchmark
+  public String renderIdCriterion() throws Exception {
+    return new Criterion(constructCriteria(ID_FIELD, id)).toString();
+  }
+}
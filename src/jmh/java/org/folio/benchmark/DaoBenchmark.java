@@ -0,0 +1,97 @@
+package org.folio.benchmark;
+
+import io.vertx.core.Future;
+import org.folio.dao.DaoRegistry;
+import org.folio.dao.one2many.DetailDao;
+import org.folio.rest.jaxrs.model.AirPlane;
+import org.folio.rest.jaxrs.model.Detail;
+import org.folio.rest.persist.Criteria.Criterion;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.interfaces.Results;
+import org.folio.rest.tools.utils.TenantTool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.folio.benchmark.ModuleState.TENANT_ID;
+import static org.folio.benchmark.ModuleState.await;
+import static org.folio.dataimport.util.DaoUtil.constructCriteria;
+
+/**
+ * DAO save and getById throughput against embedded Postgres.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dentity.cache.enabled=true")
+@State(Scope.Benchmark)
+public class DaoBenchmark {
+
+  private static final String ID_FIELD = "'id'";
+
+  private DaoRegistry daoRegistry;
+  private PostgresClient pgClient;
+  private AirPlane airPlane;
+  private Detail detail;
+
+  @Setup(Level.Trial)
+  public void setUp(ModuleState module) throws Exception {
+    daoRegistry = DaoRegistry.getInstance(module.vertx, TENANT_ID);
+    pgClient = PostgresClient.getInstance(module.vertx, TenantTool.calculateTenantId(TENANT_ID));
+    airPlane = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A380");
+    detail = new Detail().withId(UUID.randomUUID().toString()).withCaption("wing").withAirPlaneId(airPlane.getId());
+    await(daoRegistry.getAirPlaneDao().save(airPlane));
+    await(daoRegistry.getDetailDao().save(detail));
+  }
+
+  @Benchmark
+  public String saveAirPlane() throws Exception {
+    return await(daoRegistry.getAirPlaneDao().save(new AirPlane().withId(UUID.randomUUID().toString()).withModel("A380")));
+  }
+
+  @Benchmark
+  public String saveDetail() throws Exception {
+    return await(daoRegistry.getDetailDao().save(new Detail().withId(UUID.randomUUID().toString())
+      .withCaption("wing").withAirPlaneId(airPlane.getId())));
+  }
+
+  @Benchmark
+  public Optional<AirPlane> getAirPlaneById() throws Exception {
+    return await(daoRegistry.getAirPlaneDao().getById(airPlane.getId()));
+  }
+
+  @Benchmark
+  public Optional<Detail> getDetailById() throws Exception {
+    return await(daoRegistry.getDetailDao().getById(detail.getId()));
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "-Dentity.cache.enabled=false")
+  public Optional<Detail> getDetailByIdUncached() throws Exception {
+    return await(daoRegistry.getDetailDao().getById(detail.getId()));
+  }
+
+  /**
+   * Lookup the DAOs used before the primary key path: JSONB criteria on 'id' with records count.
+   */
+  @Benchmark
+  public List<Detail> getDetailByIdCriteria() throws Exception {
+    Future<Results<Detail>> future = Future.future();
+    pgClient.get(DetailDao.TABLE, Detail.class, new Criterion(constructCriteria(ID_FIELD, detail.getId())), true, future.completer());
+    return await(future).getResults();
+  }
+}
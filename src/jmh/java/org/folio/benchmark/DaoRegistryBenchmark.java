@@ -0,0 +1,69 @@
+package org.folio.benchmark;
+
+import io.vertx.core.Vertx;
+import org.folio.dao.DaoRegistry;
+import org.folio.dao.many2many.impl.EmployeeDaoImpl;
+import org.folio.dao.many2many.impl.LocationDaoImpl;
+import org.folio.dao.many2many.impl.TicketDaoImpl;
+import org.folio.dao.one2many.impl.AirPlaneDaoImpl;
+import org.folio.dao.one2many.impl.DetailDaoImpl;
+import org.folio.dao.one2one.impl.PassportDaoImpl;
+import org.folio.dao.one2one.impl.PersonDaoImpl;
+import org.folio.rest.tools.utils.TenantTool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of obtaining DAOs: building all seven DAOs as ResourceImpl used to do
+ * versus looking up the tenant's {@link DaoRegistry}. Run with -prof gc to compare allocation rate.
+ * Does not need a database, DAOs do not connect until the first query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DaoRegistryBenchmark {
+
+  private Vertx vertx;
+
+  @Setup
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @TearDown
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Benchmark
+  public void constructDaosPerRequest(Blackhole blackhole) {
+    String tenantId = TenantTool.calculateTenantId(ModuleState.TENANT_ID);
+    blackhole.consume(new EmployeeDaoImpl(vertx, tenantId));
+    blackhole.consume(new LocationDaoImpl(vertx, tenantId));
+    blackhole.consume(new TicketDaoImpl(vertx, tenantId));
+    blackhole.consume(new AirPlaneDaoImpl(vertx, tenantId));
+    blackhole.consume(new DetailDaoImpl(vertx, tenantId));
+    blackhole.consume(new PassportDaoImpl(vertx, tenantId));
+    blackhole.consume(new PersonDaoImpl(vertx, tenantId));
+  }
+
+  @Benchmark
+  public void lookupDaoRegistry(Blackhole blackhole) {
+    blackhole.consume(DaoRegistry.getInstance(vertx, ModuleState.TENANT_ID).getDetailDao());
+  }
+}
@@ -0,0 +1,95 @@
+package org.folio.benchmark;
+
+import org.folio.dao.AbstractEntityDao;
+import org.folio.dao.DaoRegistry;
+import org.folio.rest.jaxrs.model.AirPlane;
+import org.folio.rest.jaxrs.model.Detail;
+import org.folio.rest.jaxrs.model.Employee;
+import org.folio.rest.jaxrs.model.Location;
+import org.folio.rest.jaxrs.model.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.folio.benchmark.ModuleState.TENANT_ID;
+import static org.folio.benchmark.ModuleState.await;
+
+/**
+ * Lookups and joins by references with JSONB fields versus the foreign key columns, see {@link AbstractEntityDao#FK_COLUMNS_PROPERTY}.
+ * Records are stored the same way in both cases, so writes are not measured. Every setting runs in its own fork,
+ * the property is set before the DAOs are created.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dentity.cache.enabled=false")
+@State(Scope.Benchmark)
+public class FkColumnsQueryBenchmark {
+
+  private static final int DETAILS_PER_AIRPLANE = 50;
+  private static final int TICKETS_PER_EMPLOYEE = 50;
+
+  @Param({"false", "true"})
+  public boolean fkColumns;
+
+  private DaoRegistry daoRegistry;
+  private AirPlane airPlane;
+  private Employee employee;
+
+  @Setup(Level.Trial)
+  public void setUp(ModuleState module) throws Exception {
+    System.setProperty(AbstractEntityDao.FK_COLUMNS_PROPERTY, String.valueOf(fkColumns));
+    daoRegistry = DaoRegistry.getInstance(module.vertx, TENANT_ID);
+
+    airPlane = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A380");
+    await(daoRegistry.getAirPlaneDao().save(airPlane));
+    for (int i = 0; i < DETAILS_PER_AIRPLANE; i++) {
+      await(daoRegistry.getDetailDao().save(new Detail().withId(UUID.randomUUID().toString())
+        .withCaption("detail " + i).withAirPlaneId(airPlane.getId())));
+    }
+    employee = new Employee().withId(UUID.randomUUID().toString()).withName("Jane");
+    await(daoRegistry.getEmployeeDao().save(employee));
+    for (int i = 0; i < TICKETS_PER_EMPLOYEE; i++) {
+      Location location = new Location().withId(UUID.randomUUID().toString()).withCaption("location " + i);
+      await(daoRegistry.getLocationDao().save(location));
+      await(daoRegistry.getTicketDao().save(new Ticket().withId(UUID.randomUUID().toString())
+        .withEmployeeId(employee.getId()).withLocationId(location.getId())));
+    }
+  }
+
+  @Benchmark
+  public List<Detail> getDetailsPageOfAirPlane() throws Exception {
+    return await(daoRegistry.getDetailDao().getPage(null, DETAILS_PER_AIRPLANE, airPlane.getId()));
+  }
+
+  /**
+   * o2m join aggregating details of the airplane.
+   */
+  @Benchmark
+  public Optional<AirPlane> getAirPlaneWithDetails() throws Exception {
+    return await(daoRegistry.getAirPlaneDao().getByIdWithDetails(airPlane.getId()));
+  }
+
+  /**
+   * m2m join from the employee through tickets to locations.
+   */
+  @Benchmark
+  public List<Location> getLocationsOfEmployee() throws Exception {
+    return await(daoRegistry.getLocationDao().getByEmployeeId(employee.getId(), null, TICKETS_PER_EMPLOYEE));
+  }
+}
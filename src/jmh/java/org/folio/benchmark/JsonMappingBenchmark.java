@@ -0,0 +1,83 @@
+package org.folio.benchmark;
+
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import org.folio.rest.jaxrs.model.AirPlane;
+import org.folio.rest.jaxrs.model.Detail;
+import org.folio.rest.jaxrs.model.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialization of the generated model classes the way DAOs and RMB do it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonMappingBenchmark {
+
+  private Ticket ticket;
+  private String ticketJson;
+  private JsonObject ticketJsonObject;
+  private AirPlane airPlane;
+  private String airPlaneJson;
+
+  @Setup
+  public void setUp() {
+    ticket = new Ticket().withId(UUID.randomUUID().toString())
+      .withEmployeeId(UUID.randomUUID().toString())
+      .withLocationId(UUID.randomUUID().toString());
+    ticketJson = Json.encode(ticket);
+    ticketJsonObject = new JsonObject(ticketJson);
+    String airPlaneId = UUID.randomUUID().toString();
+    airPlane = new AirPlane().withId(airPlaneId).withModel("A380").withDetails(Arrays.asList(
+      new Detail().withId(UUID.randomUUID().toString()).withCaption("left wing").withAirPlaneId(airPlaneId),
+      new Detail().withId(UUID.randomUUID().toString()).withCaption("right wing").withAirPlaneId(airPlaneId)));
+    airPlaneJson = Json.encode(airPlane);
+  }
+
+  @Benchmark
+  public String encodeTicket() {
+    return Json.encode(ticket);
+  }
+
+  @Benchmark
+  public Ticket decodeTicket() {
+    return Json.decodeValue(ticketJson, Ticket.class);
+  }
+
+  @Benchmark
+  public JsonObject mapFromTicket() {
+    return JsonObject.mapFrom(ticket);
+  }
+
+  @Benchmark
+  public Ticket mapToTicket() {
+    return ticketJsonObject.mapTo(Ticket.class);
+  }
+
+  @Benchmark
+  public String encodeAirPlaneWithDetails() {
+    return Json.encode(airPlane);
+  }
+
+  @Benchmark
+  public AirPlane decodeAirPlaneWithDetails() {
+    return Json.decodeValue(airPlaneJson, AirPlane.class);
+  }
+}
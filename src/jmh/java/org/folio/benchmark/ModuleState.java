@@ -0,0 +1,86 @@
+package org.folio.benchmark;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.client.TenantClient;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.tools.utils.NetworkUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Module deployed the same way as in the REST tests: embedded Postgres, RestVerticle and a tenant schema.
+ * Shared by all benchmark methods of a trial.
+ */
+@State(Scope.Benchmark)
+public class ModuleState {
+
+  public static final String TENANT_ID = "benchmark";
+  private static final long TIMEOUT_SECONDS = 120;
+
+  public Vertx vertx;
+  public int port;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    vertx = Vertx.vertx();
+    port = NetworkUtils.nextFreePort();
+
+    PostgresClient.stopEmbeddedPostgres();
+    PostgresClient.setIsEmbedded(true);
+    PostgresClient.getInstance(vertx).startEmbeddedPostgres();
+
+    CompletableFuture<Void> tenantCreated = new CompletableFuture<>();
+    TenantClient tenantClient = new TenantClient("http://localhost:" + port, TENANT_ID, "dummy-token");
+    DeploymentOptions options = new DeploymentOptions().setConfig(new JsonObject().put("http.port", port));
+    vertx.deployVerticle(RestVerticle.class.getName(), options, deployment -> {
+      if (deployment.failed()) {
+        tenantCreated.completeExceptionally(deployment.cause());
+        return;
+      }
+      try {
+        tenantClient.postTenant(null, response -> tenantCreated.complete(null));
+      } catch (Exception e) {
+        tenantCreated.completeExceptionally(e);
+      }
+    });
+    tenantCreated.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    CompletableFuture<Void> closed = new CompletableFuture<>();
+    vertx.close(ar -> {
+      PostgresClient.stopEmbeddedPostgres();
+      closed.complete(null);
+    });
+    closed.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Blocks benchmark thread until the future completes.
+   */
+  public static <T> T await(Future<T> future) throws Exception {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    future.setHandler(ar -> complete(result, ar));
+    return result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  static <T> void complete(CompletableFuture<T> result, AsyncResult<T> ar) {
+    if (ar.succeeded()) {
+      result.complete(ar.result());
+    } else {
+      result.completeExceptionally(ar.cause());
+    }
+  }
+}
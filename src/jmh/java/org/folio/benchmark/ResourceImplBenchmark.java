@@ -0,0 +1,99 @@
+package org.folio.benchmark;
+
+import io.vertx.core.Context;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.impl.ResourceImpl;
+import org.folio.rest.jaxrs.model.AirPlane;
+import org.folio.rest.jaxrs.model.Detail;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.folio.benchmark.ModuleState.TENANT_ID;
+import static org.folio.benchmark.ModuleState.complete;
+
+/**
+ * POST and GET handlers of {@link ResourceImpl}, invoked the way RestVerticle does: a new instance per request.
+ * Sample time mode reports per-request latency percentiles next to throughput.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceImplBenchmark {
+
+  private static final Map<String, String> OKAPI_HEADERS = Collections.singletonMap(RestVerticle.OKAPI_HEADER_TENANT, TENANT_ID);
+
+  private ModuleState module;
+  private Context context;
+  private AirPlane airPlane;
+
+  @Setup(Level.Trial)
+  public void setUp(ModuleState module) throws Exception {
+    this.module = module;
+    this.context = module.vertx.getOrCreateContext();
+    this.airPlane = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A380");
+    Response response = postAirPlane(airPlane);
+    if (response.getStatus() != 201) {
+      throw new IllegalStateException("AirPlane was not saved: " + response.getStatus());
+    }
+  }
+
+  @Benchmark
+  public Response postAirPlane() throws Exception {
+    return postAirPlane(new AirPlane().withId(UUID.randomUUID().toString()).withModel("A380"));
+  }
+
+  @Benchmark
+  public Response postDetail() throws Exception {
+    Detail detail = new Detail().withId(UUID.randomUUID().toString()).withCaption("wing").withAirPlaneId(airPlane.getId());
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    new ResourceImpl(module.vertx, TENANT_ID)
+      .postResourceDetail(detail, OKAPI_HEADERS, ar -> complete(result, ar), context);
+    return result.get(1, TimeUnit.MINUTES);
+  }
+
+  @Benchmark
+  public Response getAirPlaneById() throws Exception {
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    new ResourceImpl(module.vertx, TENANT_ID)
+      .getResourceAirPlaneById(airPlane.getId(), null, OKAPI_HEADERS, ar -> complete(result, ar), context);
+    return result.get(1, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Handler dispatched through an extra event loop task, the way part of the handlers used to run,
+   * is a baseline for getAirPlaneById. The airplane is cached, so the difference is the cost of the hop.
+   */
+  @Benchmark
+  public Response getAirPlaneByIdViaRunOnContext() throws Exception {
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    context.runOnContext(v -> new ResourceImpl(module.vertx, TENANT_ID)
+      .getResourceAirPlaneById(airPlane.getId(), null, OKAPI_HEADERS, ar -> complete(result, ar), context));
+    return result.get(1, TimeUnit.MINUTES);
+  }
+
+  private Response postAirPlane(AirPlane entity) throws Exception {
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    new ResourceImpl(module.vertx, TENANT_ID)
+      .postResourceAirPlane(entity, OKAPI_HEADERS, ar -> complete(result, ar), context);
+    return result.get(1, TimeUnit.MINUTES);
+  }
+}
@@ -0,0 +1,800 @@
+package org.folio.dao;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.sql.ResultSet;
+import org.folio.dao.cache.EntityCache;
+import org.folio.dao.cache.IdIndex;
+import org.folio.dao.util.ReadBatcher;
+import org.folio.dao.util.SingleFlight;
+import org.folio.dao.util.TenantScheduler;
+import org.folio.dao.util.WriteBehindQueue;
+import org.folio.metrics.MetricsRegistry;
+import org.folio.rest.jaxrs.model.BatchItemResult;
+import org.folio.rest.jaxrs.model.BatchResult;
+import org.folio.rest.persist.PostgresClient;
+
+import javax.ws.rs.BadRequestException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Base class for DAOs of entities stored as JSONB documents with the entity id as a primary key.
+ *
+ * @param <T> entity type
+ */
+public abstract class AbstractEntityDao<T> {
+
+  public static final String REFERENCE_NOT_FOUND_MESSAGE = "Record references a non-existing record";
+  public static final String CONFLICT_MESSAGE = "Record conflicts with an existing record";
+  /**
+   * Switches lookups, joins and cascading deletes by references to the uuid columns RMB keeps for the foreign keys
+   * of the tables. Records are still stored as JSONB documents, only the queries change.
+   */
+  public static final String FK_COLUMNS_PROPERTY = "dao.query.fkColumns";
+
+  /**
+   * Max number of rows written by one multi-row statement, keeps statement parameters count far below the Postgres limit
+   */
+  static final int BATCH_CHUNK_SIZE = 1000;
+  /**
+   * Number of rows fetched by one query of an export
+   */
+  static final int EXPORT_PAGE_SIZE = 1000;
+  /**
+   * Number of ids fetched by one query while loading ids of a referenced table into the id index
+   */
+  static final int ID_INDEX_PAGE_SIZE = 10000;
+  private static final String MIN_UUID = "00000000-0000-0000-0000-000000000000";
+  private static final Pattern UUID_PATTERN =
+    Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+  protected PostgresClient pgClient;
+  protected String tenantId;
+  protected EntityCache entityCache;
+  private String table;
+  private Class<T> entityClass;
+  private List<ForeignKey> foreignKeys;
+  private String selectByIdSql;
+  private WriteBehindQueue<T> writeBehindQueue;
+  private IdIndex idIndex;
+  private SingleFlight<String, Optional<JsonObject>> getByIdFlight;
+  private ReadBatcher readBatcher;
+  private boolean fkColumnQueries;
+  private TenantScheduler scheduler;
+
+  protected AbstractEntityDao(Vertx vertx, String tenantId, String table, Class<T> entityClass, List<ForeignKey> foreignKeys) {
+    this.pgClient = PostgresClient.getInstance(vertx, tenantId);
+    this.tenantId = tenantId;
+    this.table = table;
+    this.entityClass = entityClass;
+    this.foreignKeys = foreignKeys;
+    this.entityCache = EntityCache.getInstance(tenantId);
+    this.selectByIdSql = "SELECT jsonb FROM " + fullTableName(table) + " WHERE _id = ?::uuid";
+    this.writeBehindQueue = WriteBehindQueue.forTable(vertx, table, this::saveBatch,
+      entity -> saveDirectly(entity, JsonObject.mapFrom(entity).getString("id")));
+    this.idIndex = IdIndex.getInstance(tenantId);
+    MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+    this.getByIdFlight = new SingleFlight<>(
+      metricsRegistry.counter("dao_get_by_id_queries_total", "Queries issued by getById",
+        "tenant", tenantId, "table", table),
+      metricsRegistry.counter("dao_get_by_id_collapsed_total", "getById calls served by a query of a concurrent call for the same id",
+        "tenant", tenantId, "table", table));
+    this.readBatcher = ReadBatcher.forTable(vertx, table, this::selectByIds);
+    this.fkColumnQueries = Boolean.getBoolean(FK_COLUMNS_PROPERTY);
+    this.scheduler = TenantScheduler.getInstance();
+  }
+
+  protected AbstractEntityDao(Vertx vertx, String tenantId, String table, Class<T> entityClass) {
+    this(vertx, tenantId, table, entityClass, Collections.emptyList());
+  }
+
+  /**
+   * Saves entity and caches it. If write-behind is enabled for the table, entity is saved
+   * with a batch of entities queued by concurrent saves.
+   *
+   * @param entity entity to save
+   * @param id     entity id
+   * @return future with id of the saved entity
+   */
+  protected Future<String> save(T entity, String id) {
+    if (!foreignKeys.isEmpty() && idIndex.isEnabled() && referencesMissingRecord(JsonObject.mapFrom(entity))) {
+      return Future.failedFuture(new ForeignKeyViolationException(REFERENCE_NOT_FOUND_MESSAGE));
+    }
+    if (writeBehindQueue != null) {
+      return writeBehindQueue.save(entity);
+    }
+    return saveDirectly(entity, id);
+  }
+
+  private Future<String> saveDirectly(T entity, String id) {
+    return schedule(() -> {
+      Future<String> future = Future.future();
+      pgClient.save(table, id, entity, future.completer());
+      return future;
+    }).map(savedId -> putToCache(entity, savedId));
+  }
+
+  /**
+   * Saves entities using multi-row inserts. Records with malformed ids, duplicated ids, references to
+   * non-existing records or conflicting with existing records are not saved and reported as failed,
+   * so one wrong record does not fail the whole batch.
+   *
+   * @param entities entities to save
+   * @return future with status of each entity in the order entities were passed
+   */
+  public Future<BatchResult> saveBatch(List<T> entities) {
+    return writeBatch(entities, false);
+  }
+
+  /**
+   * Creates or replaces entities using multi-row upserts, so a retried batch has the same effect as the first one.
+   * Records with malformed ids, duplicated ids or references to non-existing records are not saved and reported
+   * as failed, the rest are reported as created or updated. A record violating a unique index other than
+   * the primary key fails the whole multi-row statement, records of such a chunk are then upserted one by one,
+   * so only the violating records are reported as failed.
+   *
+   * @param entities entities to save
+   * @return future with status of each entity in the order entities were passed
+   */
+  public Future<BatchResult> upsertBatch(List<T> entities) {
+    return writeBatch(entities, true);
+  }
+
+  /**
+   * Creates or replaces entity in one statement, so a retried save has the same effect as the first one.
+   *
+   * @param entity entity to save
+   * @return future with id of the saved entity
+   */
+  public Future<String> upsert(T entity) {
+    JsonObject record = JsonObject.mapFrom(entity);
+    String error = validate(record);
+    if (error != null) {
+      return Future.failedFuture(new BadRequestException(error));
+    }
+    if (referencesMissingRecord(record)) {
+      return Future.failedFuture(new ForeignKeyViolationException(REFERENCE_NOT_FOUND_MESSAGE));
+    }
+    String id = record.getString("id");
+    String sql = "INSERT INTO " + fullTableName(table) + " (_id, jsonb) VALUES (?::uuid, ?::jsonb) "
+      + "ON CONFLICT (_id) DO UPDATE SET jsonb = EXCLUDED.jsonb RETURNING _id";
+    return select(sql, new JsonArray().add(id).add(record.encode())).map(resultSet -> {
+      entityCache.invalidate(table, id);
+      entityCache.put(table, id, record);
+      idIndex.add(table, id);
+      return id;
+    });
+  }
+
+  /**
+   * Inserts records of several tables with one statement of data-modifying CTEs, so all records are saved
+   * in one round trip and one transaction, either all of them or none. Foreign keys are checked at the end
+   * of the statement, so records may reference records inserted by the same statement.
+   *
+   * @param recordsByTable records to insert by table name, referenced tables first
+   * @return future completed when records of all tables are saved
+   */
+  protected Future<Void> insertGraph(Map<String, List<JsonObject>> recordsByTable) {
+    List<String> inserts = new ArrayList<>();
+    JsonArray params = new JsonArray();
+    for (Map.Entry<String, List<JsonObject>> tableRecords : recordsByTable.entrySet()) {
+      List<JsonObject> records = tableRecords.getValue();
+      if (records.isEmpty()) {
+        continue;
+      }
+      for (JsonObject record : records) {
+        if (!isUuid(record.getString("id"))) {
+          return Future.failedFuture(new BadRequestException("Record id is not a valid UUID"));
+        }
+        params.add(record.getString("id")).add(record.encode());
+      }
+      inserts.add(format("inserted_%d AS (INSERT INTO %s (_id, jsonb) VALUES %s RETURNING _id)", inserts.size(),
+        fullTableName(tableRecords.getKey()), String.join(", ", Collections.nCopies(records.size(), "(?::uuid, ?::jsonb)"))));
+    }
+    if (inserts.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    String sql = "WITH " + String.join(", ", inserts) + " SELECT count(*) AS saved FROM inserted_0";
+    return select(sql, params).map(resultSet -> {
+      recordsByTable.forEach((tableName, records) -> records.forEach(record -> {
+        entityCache.put(tableName, record.getString("id"), record);
+        idIndex.add(tableName, record.getString("id"));
+      }));
+      return null;
+    });
+  }
+
+  /**
+   * Deletes entity by id, deleting an entity referenced by other records fails with a foreign key violation.
+   *
+   * @param id entity id
+   * @return future with true if entity was deleted, false if it does not exist
+   */
+  public Future<Boolean> delete(String id) {
+    return delete(id, false);
+  }
+
+  /**
+   * Deletes entity by id. With cascade, records of the tables referencing the entity are deleted by the same
+   * statement of data-modifying CTEs, one set-based delete per referencing table, so the entity and all its
+   * dependents are deleted in one round trip and one transaction however many dependents there are.
+   * The entity and every deleted dependent are evicted from the cache and the id index by the ids the statement returns.
+   *
+   * @param id      entity id
+   * @param cascade whether to delete records referencing the entity
+   * @return future with true if entity was deleted, false if it does not exist
+   */
+  public Future<Boolean> delete(String id, boolean cascade) {
+    if (!isUuid(id)) {
+      return Future.succeededFuture(false);
+    }
+    List<String> deletes = new ArrayList<>();
+    List<String> deletedIds = new ArrayList<>();
+    JsonArray params = new JsonArray();
+    if (cascade) {
+      for (ForeignKey referencingKey : getReferencingKeys()) {
+        String name = "deleted_" + deletes.size();
+        deletes.add(format("%s AS (DELETE FROM %s child USING %s parent WHERE parent._id = ?::uuid AND %s RETURNING child._id)",
+          name, fullTableName(referencingKey.getTargetTable()), fullTableName(table),
+          referencesRow("child", referencingKey.getFieldName(), "parent")));
+        deletedIds.add(format("SELECT '%s' AS table_name, _id::text AS id FROM %s", referencingKey.getTargetTable(), name));
+        params.add(id);
+      }
+    }
+    deletes.add("deleted AS (DELETE FROM " + fullTableName(table) + " WHERE _id = ?::uuid RETURNING _id)");
+    deletedIds.add(0, format("SELECT '%s' AS table_name, _id::text AS id FROM deleted", table));
+    params.add(id);
+    String sql = "WITH " + String.join(", ", deletes) + " " + String.join(" UNION ALL ", deletedIds);
+    return select(sql, params).map(resultSet -> {
+      boolean deleted = false;
+      for (JsonObject row : resultSet.getRows()) {
+        String deletedTable = row.getString("table_name");
+        String deletedId = row.getString("id");
+        deleted |= deletedTable.equals(table);
+        entityCache.invalidate(deletedTable, deletedId);
+        idIndex.remove(deletedTable, deletedId);
+      }
+      return deleted;
+    });
+  }
+
+  /**
+   * Foreign keys of the tables referencing this table, with the referencing table as a target,
+   * records of these tables are deleted together with the referenced entity by cascading delete.
+   * Referencing tables are expected not to be referenced themselves.
+   *
+   * @return referencing keys, empty if the table is not referenced
+   */
+  protected List<ForeignKey> getReferencingKeys() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * @param referencingTable     table that may reference this table
+   * @param referencingTableKeys foreign keys of the referencing table
+   * @return keys of the referencing table pointing to this table, with the referencing table as a target
+   */
+  protected List<ForeignKey> referencingKeys(String referencingTable, List<ForeignKey> referencingTableKeys) {
+    return referencingTableKeys.stream()
+      .filter(foreignKey -> foreignKey.getTargetTable().equals(table))
+      .map(foreignKey -> new ForeignKey(foreignKey.getFieldName(), referencingTable))
+      .collect(toList());
+  }
+
+  private Future<BatchResult> writeBatch(List<T> entities, boolean upsert) {
+    List<BatchItemResult> items = new ArrayList<>(entities.size());
+    Map<String, BatchItemResult> pendingItems = new HashMap<>();
+    Map<String, JsonObject> pendingRecords = new LinkedHashMap<>();
+    for (T entity : entities) {
+      JsonObject record = JsonObject.mapFrom(entity);
+      String id = record.getString("id");
+      BatchItemResult item = new BatchItemResult().withId(id);
+      items.add(item);
+      String error = validate(record);
+      if (error == null && pendingRecords.containsKey(id)) {
+        error = "Record id is duplicated within the batch";
+      }
+      if (error == null && referencesMissingRecord(record)) {
+        error = REFERENCE_NOT_FOUND_MESSAGE;
+      }
+      if (error != null) {
+        item.withStatus(BatchItemResult.Status.FAILED).withMessage(error);
+      } else {
+        pendingItems.put(id, item);
+        pendingRecords.put(id, record);
+      }
+    }
+
+    Future<Void> future = Future.succeededFuture();
+    List<JsonObject> records = new ArrayList<>(pendingRecords.values());
+    for (int from = 0; from < records.size(); from += BATCH_CHUNK_SIZE) {
+      List<JsonObject> chunk = records.subList(from, Math.min(from + BATCH_CHUNK_SIZE, records.size()));
+      future = future.compose(v -> insertChunk(chunk, pendingItems, pendingRecords, upsert));
+    }
+    return future.map(v -> new BatchResult().withItems(items).withTotalRecords(items.size()));
+  }
+
+  private Future<Void> insertChunk(List<JsonObject> records, Map<String, BatchItemResult> pendingItems,
+                                   Map<String, JsonObject> pendingRecords, boolean upsert) {
+    Future<Void> future = writeChunk(records, pendingItems, pendingRecords, upsert);
+    return upsert && records.size() > 1
+      ? future.recover(e -> upsertOneByOne(records, pendingItems, pendingRecords))
+      : future;
+  }
+
+  private Future<Void> upsertOneByOne(List<JsonObject> records, Map<String, BatchItemResult> pendingItems,
+                                      Map<String, JsonObject> pendingRecords) {
+    Future<Void> future = Future.succeededFuture();
+    for (JsonObject record : records) {
+      future = future.compose(v -> writeChunk(Collections.singletonList(record), pendingItems, pendingRecords, true)
+        .otherwise(e -> {
+          pendingItems.get(record.getString("id")).withStatus(BatchItemResult.Status.FAILED).withMessage(e.getMessage());
+          return null;
+        }));
+    }
+    return future;
+  }
+
+  private Future<Void> writeChunk(List<JsonObject> records, Map<String, BatchItemResult> pendingItems,
+                                  Map<String, JsonObject> pendingRecords, boolean upsert) {
+    JsonArray params = new JsonArray();
+    records.forEach(record -> params.add(record.getString("id")).add(record.encode()));
+    return select(buildCheckedInsertSql(records.size(), upsert), params).map(resultSet -> {
+      for (JsonObject row : resultSet.getRows()) {
+        BatchItemResult item = pendingItems.get(row.getString("id"));
+        if (Boolean.TRUE.equals(row.getBoolean("inserted"))) {
+          item.withStatus(Boolean.TRUE.equals(row.getBoolean("created"))
+            ? BatchItemResult.Status.CREATED : BatchItemResult.Status.UPDATED);
+          if (upsert) {
+            entityCache.invalidate(table, item.getId());
+          }
+          entityCache.put(table, item.getId(), pendingRecords.get(item.getId()));
+          idIndex.add(table, item.getId());
+        } else if (Boolean.TRUE.equals(row.getBoolean("references_exist"))) {
+          item.withStatus(BatchItemResult.Status.FAILED).withMessage(CONFLICT_MESSAGE);
+        } else {
+          item.withStatus(BatchItemResult.Status.FAILED).withMessage(REFERENCE_NOT_FOUND_MESSAGE);
+        }
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Returns entity by id, served from the tenant's cache or by a primary key lookup.
+   * Concurrent calls for the same id share one lookup, every caller gets its own entity instance.
+   * If read batching is enabled for the table, lookups of different ids are resolved by one multi-id query.
+   *
+   * @param id entity id
+   * @return future with entity, or empty optional if entity does not exist
+   */
+  public Future<Optional<T>> getById(String id) {
+    Optional<JsonObject> cached = entityCache.get(table, id);
+    if (cached.isPresent()) {
+      return Future.succeededFuture(Optional.of(cached.get().mapTo(entityClass)));
+    }
+    return getByIdFlight.execute(id, () -> loadThrough(id))
+      .map(record -> record.map(r -> r.mapTo(entityClass)));
+  }
+
+  /**
+   * Loads record and caches it. The write generation of the record is taken before the load is started,
+   * so the record is not cached if it was written or deleted while the load was in flight.
+   */
+  private Future<Optional<JsonObject>> loadThrough(String id) {
+    long stamp = entityCache.stamp(table, id);
+    return loadRecordById(id).map(record -> {
+      record.ifPresent(r -> entityCache.putLoaded(table, id, r, stamp));
+      return record;
+    });
+  }
+
+  private Future<Optional<JsonObject>> loadRecordById(String id) {
+    return readBatcher != null && isUuid(id) ? readBatcher.load(id) : selectRecordById(id);
+  }
+
+  /**
+   * Returns entities by ids, cached entities are taken from the tenant's cache,
+   * the rest are fetched by one primary key lookup.
+   *
+   * @param ids entity ids
+   * @return future with entities in the order of ids, empty optional stands for an entity that does not exist
+   */
+  public Future<List<Optional<T>>> getByIds(Collection<String> ids) {
+    Map<String, T> found = new HashMap<>();
+    Map<String, Long> stamps = new LinkedHashMap<>();
+    for (String id : new LinkedHashSet<>(ids)) {
+      Optional<JsonObject> cached = entityCache.get(table, id);
+      if (cached.isPresent()) {
+        found.put(id, cached.get().mapTo(entityClass));
+      } else if (isUuid(id)) {
+        stamps.put(id, entityCache.stamp(table, id));
+      }
+    }
+    Future<Void> future = stamps.isEmpty() ? Future.succeededFuture() : selectByIds(new ArrayList<>(stamps.keySet()))
+      .map(records -> {
+        records.forEach(record -> {
+          String id = record.getString("id");
+          Long stamp = stamps.get(id);
+          if (stamp != null) {
+            entityCache.putLoaded(table, id, record, stamp);
+          }
+          found.put(id, record.mapTo(entityClass));
+        });
+        return null;
+      });
+    return future.map(v -> ids.stream()
+      .map(id -> Optional.ofNullable(found.get(id)))
+      .collect(toList()));
+  }
+
+  /**
+   * Selects records by primary keys passed as a single array parameter.
+   *
+   * @param ids well-formed UUIDs
+   * @return future with found records
+   */
+  protected Future<List<JsonObject>> selectByIds(List<String> ids) {
+    String sql = "SELECT jsonb FROM " + fullTableName(table) + " WHERE _id = ANY(?::uuid[])";
+    return select(sql, new JsonArray().add("{" + String.join(",", ids) + "}"))
+      .map(resultSet -> resultSet.getRows().stream()
+        .map(row -> toJsonObject(row.getValue("jsonb")))
+        .collect(toList()));
+  }
+
+  /**
+   * Looks record up by the primary key, which holds the same value as the "id" field of the document.
+   * Unlike criteria based get it neither builds a WHERE clause over JSONB nor counts records.
+   *
+   * @param id entity id
+   * @return future with record, or empty optional if record does not exist or id is not a UUID
+   */
+  private Future<Optional<JsonObject>> selectRecordById(String id) {
+    if (!isUuid(id)) {
+      return Future.succeededFuture(Optional.empty());
+    }
+    return select(selectByIdSql, new JsonArray().add(id))
+      .map(resultSet -> resultSet.getRows().stream()
+        .findFirst()
+        .map(row -> toJsonObject(row.getValue("jsonb"))));
+  }
+
+  /**
+   * Writes records as newline delimited JSON ordered by id. Records are fetched by keyset pages on the primary key,
+   * so neither the whole table nor an open cursor is held, and the next page is not fetched until the stream drains,
+   * so memory stays flat however many records are exported. A stream of a closed connection does not drain,
+   * so the export of a disconnected client stops.
+   *
+   * @param stream     stream to write records to, is not ended by export
+   * @param afterId    id after which export starts, null to start from the beginning
+   * @param maxRecords max number of records to export
+   * @return future with number of exported records
+   */
+  public Future<Integer> export(WriteStream<Buffer> stream, String afterId, int maxRecords) {
+    if (afterId != null && !isUuid(afterId)) {
+      return Future.failedFuture(new BadRequestException("Parameter 'after' is not a valid UUID"));
+    }
+    Future<Integer> future = Future.future();
+    exportPage(stream, afterId == null ? MIN_UUID : afterId, maxRecords, 0, future);
+    return future;
+  }
+
+  private void exportPage(WriteStream<Buffer> stream, String afterId, int maxRecords, int exported, Future<Integer> future) {
+    int pageSize = Math.min(EXPORT_PAGE_SIZE, maxRecords - exported);
+    if (pageSize <= 0) {
+      future.complete(exported);
+      return;
+    }
+    String sql = "SELECT _id::text AS id, jsonb::text AS record FROM " + fullTableName(table)
+      + " WHERE _id > ?::uuid ORDER BY _id LIMIT ?";
+    select(sql, new JsonArray().add(afterId).add(pageSize)).setHandler(ar -> {
+      if (ar.failed()) {
+        future.fail(ar.cause());
+        return;
+      }
+      List<JsonObject> rows = ar.result().getRows();
+      Buffer page = Buffer.buffer();
+      rows.forEach(row -> page.appendString(row.getString("record")).appendString("\n"));
+      stream.write(page);
+      int total = exported + rows.size();
+      if (rows.size() < pageSize) {
+        future.complete(total);
+        return;
+      }
+      String lastId = rows.get(rows.size() - 1).getString("id");
+      if (stream.writeQueueFull()) {
+        stream.drainHandler(v -> exportPage(stream, lastId, maxRecords, total, future));
+      } else {
+        exportPage(stream, lastId, maxRecords, total, future);
+      }
+    });
+  }
+
+  /**
+   * Returns page of entities ordered by id.
+   *
+   * @param afterId id after which the page starts, null to start from the beginning
+   * @param limit   max number of entities in the page
+   * @return future with entities of the page
+   */
+  public Future<List<T>> getPage(String afterId, int limit) {
+    return selectPage(afterId, limit, Collections.emptyMap());
+  }
+
+  /**
+   * Returns page of entities ordered by id having the given values of foreign key fields. Page starts
+   * at the given id of the primary key index instead of skipping the preceding rows with OFFSET,
+   * so deep pages cost the same as the first page.
+   *
+   * @param afterId id after which the page starts, null to start from the beginning
+   * @param limit   max number of entities in the page
+   * @param filters values of foreign key fields by field names, null values are not filtered by
+   * @return future with entities of the page
+   */
+  protected Future<List<T>> selectPage(String afterId, int limit, Map<String, String> filters) {
+    List<String> conditions = new ArrayList<>();
+    JsonArray params = new JsonArray();
+    for (Map.Entry<String, String> filter : filters.entrySet()) {
+      if (filter.getValue() == null) {
+        continue;
+      }
+      if (!isUuid(filter.getValue())) {
+        // references are UUIDs, so nothing matches
+        return Future.succeededFuture(Collections.emptyList());
+      }
+      conditions.add(referenceEquals(table, filter.getKey()));
+      params.add(filter.getValue());
+    }
+    return selectPage(afterId, limit, String.join(" AND ", conditions), params);
+  }
+
+  /**
+   * Returns page of entities ordered by id matching the condition, pages the same way as {@link #selectPage(String, int, Map)}.
+   *
+   * @param afterId         id after which the page starts, null to start from the beginning
+   * @param limit           max number of entities in the page
+   * @param condition       SQL condition on columns of the table, empty string for no condition
+   * @param conditionParams parameters of the condition
+   * @return future with entities of the page
+   */
+  protected Future<List<T>> selectPage(String afterId, int limit, String condition, JsonArray conditionParams) {
+    if (afterId != null && !isUuid(afterId)) {
+      return Future.failedFuture(new BadRequestException("Parameter 'after' is not a valid UUID"));
+    }
+    String sql = "SELECT jsonb FROM " + fullTableName(table) + " WHERE _id > ?::uuid"
+      + (condition.isEmpty() ? "" : " AND " + condition) + " ORDER BY _id LIMIT ?";
+    JsonArray params = new JsonArray().add(afterId == null ? MIN_UUID : afterId).addAll(conditionParams).add(limit);
+    return select(sql, params)
+      .map(resultSet -> resultSet.getRows().stream()
+        .map(row -> toJsonObject(row.getValue("jsonb")).mapTo(entityClass))
+        .collect(toList()));
+  }
+
+  /**
+   * Caches successfully saved entity and adds its id to the id index, is meant to be mapped over save result.
+   *
+   * @param entity saved entity
+   * @param id     id of the saved entity
+   * @return id of the saved entity
+   */
+  protected String putToCache(T entity, String id) {
+    entityCache.put(table, id, JsonObject.mapFrom(entity));
+    idIndex.add(table, id);
+    return id;
+  }
+
+  /**
+   * Checks references of the record against the tenant's id index, loading of ids of a referenced table
+   * is started on first use and references to it are not checked until ids are loaded.
+   *
+   * @return true if the record references a record that is known to be missing
+   */
+  private boolean referencesMissingRecord(JsonObject record) {
+    if (!idIndex.isEnabled()) {
+      return false;
+    }
+    for (ForeignKey foreignKey : foreignKeys) {
+      String reference = record.getString(foreignKey.getFieldName());
+      if (reference == null || !isUuid(reference)) {
+        continue;
+      }
+      if (idIndex.isNotLoaded(foreignKey.getTargetTable())) {
+        loadIdIndex(foreignKey.getTargetTable());
+      } else if (idIndex.isKnownMissing(foreignKey.getTargetTable(), reference)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void loadIdIndex(String targetTable) {
+    if (idIndex.startLoading(targetTable)) {
+      loadIdIndexPage(targetTable, MIN_UUID);
+    }
+  }
+
+  private void loadIdIndexPage(String targetTable, String afterId) {
+    String sql = "SELECT _id::text AS id FROM " + fullTableName(targetTable) + " WHERE _id > ?::uuid ORDER BY _id LIMIT ?";
+    select(sql, new JsonArray().add(afterId).add(ID_INDEX_PAGE_SIZE)).setHandler(ar -> {
+      if (ar.failed()) {
+        idIndex.invalidate(targetTable);
+        return;
+      }
+      List<JsonObject> rows = ar.result().getRows();
+      rows.forEach(row -> idIndex.addLoaded(targetTable, row.getString("id")));
+      if (rows.size() < ID_INDEX_PAGE_SIZE) {
+        idIndex.finishLoading(targetTable);
+      } else {
+        loadIdIndexPage(targetTable, rows.get(rows.size() - 1).getString("id"));
+      }
+    });
+  }
+
+  /**
+   * Builds a single statement that inserts the rows whose references exist, skips rows conflicting
+   * with existing ones or replaces existing rows with the same id on upsert, and reports the outcome
+   * of every input row. Row updated by the upsert has xmax of the updating transaction, inserted row has 0.
+   */
+  private String buildCheckedInsertSql(int rowsNumber, boolean upsert) {
+    String values = String.join(", ", Collections.nCopies(rowsNumber, "(?::uuid, ?::jsonb)"));
+    String referencesExist = foreignKeys.isEmpty() ? "TRUE" : foreignKeys.stream()
+      .map(fk -> format("(input.jsonb->>'%1$s' IS NULL OR EXISTS (SELECT 1 FROM %2$s parent WHERE parent._id = (input.jsonb->>'%1$s')::uuid))",
+        fk.getFieldName(), fullTableName(fk.getTargetTable())))
+      .collect(joining(" AND "));
+    return "WITH input (_id, jsonb) AS (VALUES " + values + "), "
+      + "checked AS (SELECT input._id, input.jsonb, " + referencesExist + " AS references_exist FROM input), "
+      + "inserted AS (INSERT INTO " + fullTableName(table) + " (_id, jsonb) "
+      + "SELECT _id, jsonb FROM checked WHERE references_exist "
+      + (upsert ? "ON CONFLICT (_id) DO UPDATE SET jsonb = EXCLUDED.jsonb RETURNING _id, xmax = 0 AS created) "
+      : "ON CONFLICT DO NOTHING RETURNING _id, TRUE AS created) ")
+      + "SELECT checked.jsonb->>'id' AS id, checked.references_exist, inserted._id IS NOT NULL AS inserted, inserted.created "
+      + "FROM checked LEFT JOIN inserted ON inserted._id = checked._id";
+  }
+
+  /**
+   * Checks that record id and references are well-formed UUIDs, so that they can be cast on the database side.
+   *
+   * @return error message or null if record is valid
+   */
+  private String validate(JsonObject record) {
+    if (!isUuid(record.getString("id"))) {
+      return "Record id is not a valid UUID";
+    }
+    for (ForeignKey foreignKey : foreignKeys) {
+      String reference = record.getString(foreignKey.getFieldName());
+      if (reference != null && !isUuid(reference)) {
+        return format("Field '%s' is not a valid UUID", foreignKey.getFieldName());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reads number of records referencing the record from a counts table maintained by triggers,
+   * so the number is read by a primary key lookup instead of counting the referencing records.
+   *
+   * @param countsTable  table with numbers of referencing records by referenced id
+   * @param referencedId id of the referenced record
+   * @return future with number of referencing records, 0 if there are none or id is not a UUID
+   */
+  protected Future<Long> countReferencing(String countsTable, String referencedId) {
+    if (!isUuid(referencedId)) {
+      return Future.succeededFuture(0L);
+    }
+    String sql = "SELECT records_count FROM " + fullTableName(countsTable) + " WHERE referenced_id = ?::uuid";
+    return select(sql, new JsonArray().add(referencedId))
+      .map(resultSet -> resultSet.getRows().stream()
+        .findFirst()
+        .map(row -> row.getLong("records_count"))
+        .orElse(0L));
+  }
+
+  /**
+   * Condition on the reference field of a row, compares the foreign key column if enabled by
+   * {@link #FK_COLUMNS_PROPERTY} and the JSONB field otherwise, so that either the column index or the JSONB expression index is used.
+   *
+   * @param rowAlias  alias or name of the referencing table in the query
+   * @param fieldName name of the entity field holding the reference
+   * @return condition with one parameter, a well-formed UUID
+   */
+  protected String referenceEquals(String rowAlias, String fieldName) {
+    return fkColumnQueries
+      ? format("%s.%s = ?::uuid", rowAlias, columnName(fieldName))
+      : format("%s.jsonb->>'%s' = ?", rowAlias, fieldName);
+  }
+
+  /**
+   * Join condition between a referencing row and the referenced row, see {@link #referenceEquals(String, String)}.
+   *
+   * @param rowAlias           alias of the referencing table in the query
+   * @param fieldName          name of the entity field holding the reference
+   * @param referencedRowAlias alias of the referenced table in the query
+   */
+  protected String referencesRow(String rowAlias, String fieldName, String referencedRowAlias) {
+    return fkColumnQueries
+      ? format("%s.%s = %s._id", rowAlias, columnName(fieldName), referencedRowAlias)
+      : format("%s.jsonb->>'%s' = %s.jsonb->>'id'", rowAlias, fieldName, referencedRowAlias);
+  }
+
+  /**
+   * @param rowAlias  alias of the referencing table in the query
+   * @param fieldName name of the entity field holding the reference
+   * @return expression of the referenced id as UUID, to be compared with the primary key of the referenced table
+   */
+  protected String referencedId(String rowAlias, String fieldName) {
+    return fkColumnQueries
+      ? rowAlias + "." + columnName(fieldName)
+      : format("(%s.jsonb->>'%s')::uuid", rowAlias, fieldName);
+  }
+
+  /**
+   * @return name of the column RMB creates for the foreign key of the entity field, the unquoted field name
+   * folded to lower case by Postgres, e.g. airplaneid for airPlaneId
+   */
+  static String columnName(String fieldName) {
+    return fieldName.toLowerCase();
+  }
+
+  /**
+   * @return name of the tenant's table qualified with the tenant schema
+   */
+  protected String fullTableName(String tableName) {
+    return PostgresClient.convertToPsqlStandard(tenantId) + "." + tableName;
+  }
+
+  /**
+   * Converts JSONB column value that is returned by the driver either as a JSON object or as a string.
+   */
+  protected static JsonObject toJsonObject(Object value) {
+    return value instanceof JsonObject ? (JsonObject) value : new JsonObject(value.toString());
+  }
+
+  /**
+   * Converts JSONB array column value that is returned by the driver either as a JSON array or as a string.
+   */
+  protected static JsonArray toJsonArray(Object value) {
+    return value instanceof JsonArray ? (JsonArray) value : new JsonArray(value.toString());
+  }
+
+  protected static boolean isUuid(String value) {
+    return value != null && UUID_PATTERN.matcher(value).matches();
+  }
+
+  protected Future<ResultSet> select(String sql, JsonArray params) {
+    return schedule(() -> {
+      Future<ResultSet> future = Future.future();
+      try {
+        pgClient.select(sql, params, future.completer());
+      } catch (Exception e) {
+        future.fail(e);
+      }
+      return future;
+    });
+  }
+
+  /**
+   * Runs a single database round trip through {@link TenantScheduler} if it is enabled, so a slot is held
+   * only while the statement runs, not while the DAO operation waits for batching, coalescing or other round trips.
+   */
+  private <R> Future<R> schedule(Supplier<Future<R>> roundTrip) {
+    return scheduler.isEnabled() ? scheduler.schedule(tenantId, roundTrip) : roundTrip.get();
+  }
+}
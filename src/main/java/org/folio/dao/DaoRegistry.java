@@ -0,0 +1,105 @@
+package org.folio.dao;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.folio.dao.many2many.EmployeeDao;
+import org.folio.dao.many2many.LocationDao;
+import org.folio.dao.many2many.TicketDao;
+import org.folio.dao.many2many.impl.EmployeeDaoImpl;
+import org.folio.dao.many2many.impl.LocationDaoImpl;
+import org.folio.dao.many2many.impl.TicketDaoImpl;
+import org.folio.dao.one2many.AirPlaneDao;
+import org.folio.dao.one2many.DetailDao;
+import org.folio.dao.one2many.impl.AirPlaneDaoImpl;
+import org.folio.dao.one2many.impl.DetailDaoImpl;
+import org.folio.dao.one2one.PassportDao;
+import org.folio.dao.one2one.PersonDao;
+import org.folio.dao.one2one.impl.PassportDaoImpl;
+import org.folio.dao.one2one.impl.PersonDaoImpl;
+import org.folio.metrics.DaoMetrics;
+import org.folio.metrics.MetricsRegistry;
+import org.folio.rest.tools.utils.TenantTool;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Holds DAOs of a single tenant. Registry is created once per tenant and Vert.x instance,
+ * DAOs are created on first use and shared by all requests of the tenant.
+ * DAOs are wrapped with {@link DaoMetrics} unless metrics are disabled.
+ */
+public class DaoRegistry implements Shareable {
+
+  private static final String REGISTRIES_MAP_NAME = "daoRegistries";
+
+  private final Vertx vertx;
+  private final String tenantId;
+  private final Map<Class<?>, Object> daos = new ConcurrentHashMap<>();
+
+  private DaoRegistry(Vertx vertx, String tenantId) {
+    this.vertx = vertx;
+    this.tenantId = tenantId;
+  }
+
+  /**
+   * Returns registry of the tenant, creates it on first access.
+   *
+   * @param vertx    Vert.x instance
+   * @param tenantId tenant id as it comes in request headers
+   * @return tenant's registry
+   */
+  public static DaoRegistry getInstance(Vertx vertx, String tenantId) {
+    LocalMap<String, DaoRegistry> registries = vertx.sharedData().getLocalMap(REGISTRIES_MAP_NAME);
+    DaoRegistry registry = registries.get(tenantId);
+    if (registry == null) {
+      DaoRegistry newRegistry = new DaoRegistry(vertx, TenantTool.calculateTenantId(tenantId));
+      registry = registries.putIfAbsent(tenantId, newRegistry);
+      if (registry == null) {
+        registry = newRegistry;
+      }
+    }
+    return registry;
+  }
+
+  public EmployeeDao getEmployeeDao() {
+    return getDao(EmployeeDao.class, EmployeeDaoImpl::new);
+  }
+
+  public LocationDao getLocationDao() {
+    return getDao(LocationDao.class, LocationDaoImpl::new);
+  }
+
+  public TicketDao getTicketDao() {
+    return getDao(TicketDao.class, TicketDaoImpl::new);
+  }
+
+  public AirPlaneDao getAirPlaneDao() {
+    return getDao(AirPlaneDao.class, AirPlaneDaoImpl::new);
+  }
+
+  public DetailDao getDetailDao() {
+    return getDao(DetailDao.class, DetailDaoImpl::new);
+  }
+
+  public PassportDao getPassportDao() {
+    return getDao(PassportDao.class, PassportDaoImpl::new);
+  }
+
+  public PersonDao getPersonDao() {
+    return getDao(PersonDao.class, PersonDaoImpl::new);
+  }
+
+  private <D> D getDao(Class<D> daoClass, BiFunction<Vertx, String, ? extends D> factory) {
+    Object dao = daos.get(daoClass);
+    if (dao == null) {
+      dao = daos.computeIfAbsent(daoClass, c -> measure(daoClass, factory.apply(vertx, tenantId)));
+    }
+    return daoClass.cast(dao);
+  }
+
+  private <D> D measure(Class<D> daoClass, D dao) {
+    return MetricsRegistry.getInstance().isEnabled() ? DaoMetrics.measure(daoClass, dao, tenantId) : dao;
+  }
+}
@@ -0,0 +1,29 @@
+package org.folio.dao;
+
+/**
+ * Foreign key of an entity table, mirrors "foreignKeys" declaration of the table in schema.json.
+ */
+public final class ForeignKey {
+
+  private final String fieldName;
+  private final String targetTable;
+
+  public ForeignKey(String fieldName, String targetTable) {
+    this.fieldName = fieldName;
+    this.targetTable = targetTable;
+  }
+
+  /**
+   * @return name of the entity field holding the reference
+   */
+  public String getFieldName() {
+    return fieldName;
+  }
+
+  /**
+   * @return name of the referenced table
+   */
+  public String getTargetTable() {
+    return targetTable;
+  }
+}
@@ -0,0 +1,11 @@
+package org.folio.dao;
+
+/**
+ * Is thrown when a record references a non-existing record
+ */
+public class ForeignKeyViolationException extends RuntimeException {
+
+  public ForeignKeyViolationException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,211 @@
+package org.folio.dao.cache;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-memory cache of entity records of a single tenant, keyed by table and record id.
+ * Every table keeps at most {@code entity.cache.maxSize} records evicting least recently used ones,
+ * records expire {@code entity.cache.ttl.ms} milliseconds after being cached.
+ * Cached records are the flat documents of the tables, no record embeds another one, so a write invalidates
+ * only the written record. Records are invalidated by writes of this module instance only,
+ * so the cache is meant for deployments where the module instance is the only writer of the tables.
+ * Cache is enabled with {@code -Dentity.cache.enabled=true}.
+ */
+public class EntityCache {
+
+  public static final String ENABLED_PROPERTY = "entity.cache.enabled";
+  public static final String MAX_SIZE_PROPERTY = "entity.cache.maxSize";
+  public static final String TTL_PROPERTY = "entity.cache.ttl.ms";
+
+  private static final int DEFAULT_MAX_SIZE = 10000;
+  private static final long DEFAULT_TTL_MS = 300000;
+  /**
+   * Number of write generations kept per table, ids sharing a generation only skip caching for each other
+   */
+  private static final int GENERATIONS = 1024;
+  private static final Map<String, EntityCache> CACHES = new ConcurrentHashMap<>();
+
+  private final boolean enabled;
+  private final int maxSize;
+  private final long ttlMillis;
+  private final Map<String, TableCache> tableCaches = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  EntityCache(boolean enabled, int maxSize, long ttlMillis) {
+    this.enabled = enabled && maxSize > 0;
+    this.maxSize = maxSize;
+    this.ttlMillis = ttlMillis;
+  }
+
+  /**
+   * Returns cache of the tenant, creates it on first access.
+   *
+   * @param tenantId tenant id
+   * @return tenant's cache
+   */
+  public static EntityCache getInstance(String tenantId) {
+    return CACHES.computeIfAbsent(tenantId, id -> new EntityCache(
+      Boolean.getBoolean(ENABLED_PROPERTY),
+      Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE),
+      Long.getLong(TTL_PROPERTY, DEFAULT_TTL_MS)));
+  }
+
+  /**
+   * @return caches of all tenants by tenant id
+   */
+  public static Map<String, EntityCache> getInstances() {
+    return Collections.unmodifiableMap(CACHES);
+  }
+
+  /**
+   * @return cached record or empty optional if record is not cached or expired
+   */
+  public Optional<JsonObject> get(String table, String id) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    JsonObject record = getTableCache(table).get(id, System.currentTimeMillis());
+    if (record == null) {
+      misses.increment();
+      return Optional.empty();
+    }
+    hits.increment();
+    return Optional.of(record);
+  }
+
+  /**
+   * Caches record written by the module.
+   */
+  public void put(String table, String id, JsonObject record) {
+    if (enabled) {
+      getTableCache(table).put(id, record, System.currentTimeMillis() + ttlMillis);
+    }
+  }
+
+  /**
+   * Returns write generation of the record, is taken before the record is loaded and passed to
+   * {@link #putLoaded(String, String, JsonObject, long)} once it is loaded.
+   */
+  public long stamp(String table, String id) {
+    return enabled ? getTableCache(table).generation(id) : 0;
+  }
+
+  /**
+   * Caches record loaded from the database unless the record was written or invalidated since the stamp was taken,
+   * so a load racing with a write does not put the overwritten or deleted record back into the cache.
+   *
+   * @param stamp write generation of the record taken before the load
+   */
+  public void putLoaded(String table, String id, JsonObject record, long stamp) {
+    if (enabled) {
+      getTableCache(table).putIfGeneration(id, record, System.currentTimeMillis() + ttlMillis, stamp);
+    }
+  }
+
+  /**
+   * Evicts the record written or deleted by the module.
+   */
+  public void invalidate(String table, String id) {
+    if (enabled) {
+      getTableCache(table).remove(id);
+    }
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  public int size() {
+    return tableCaches.values().stream().mapToInt(TableCache::size).sum();
+  }
+
+  private TableCache getTableCache(String table) {
+    return tableCaches.computeIfAbsent(table, t -> new TableCache());
+  }
+
+  private static class Entry {
+    private final JsonObject record;
+    private final long expiresAt;
+
+    Entry(JsonObject record, long expiresAt) {
+      this.record = record;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  /**
+   * LRU map of records of a single table, access is synchronized as tables are shared between event loops.
+   * Every write and eviction of a record advances its generation.
+   */
+  private class TableCache {
+    private final long[] generations = new long[GENERATIONS];
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        if (size() > maxSize) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+
+    synchronized JsonObject get(String id, long now) {
+      Entry entry = entries.get(id);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.expiresAt < now) {
+        entries.remove(id);
+        evictions.increment();
+        return null;
+      }
+      return entry.record;
+    }
+
+    synchronized void put(String id, JsonObject record, long expiresAt) {
+      generations[generationIndex(id)]++;
+      entries.put(id, new Entry(record, expiresAt));
+    }
+
+    synchronized void putIfGeneration(String id, JsonObject record, long expiresAt, long generation) {
+      if (generations[generationIndex(id)] == generation) {
+        entries.put(id, new Entry(record, expiresAt));
+      }
+    }
+
+    synchronized long generation(String id) {
+      return generations[generationIndex(id)];
+    }
+
+    synchronized void remove(String id) {
+      generations[generationIndex(id)]++;
+      entries.remove(id);
+    }
+
+    synchronized int size() {
+      return entries.size();
+    }
+
+    private int generationIndex(String id) {
+      return (id.hashCode() & Integer.MAX_VALUE) % GENERATIONS;
+    }
+  }
+}
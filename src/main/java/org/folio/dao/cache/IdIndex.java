@@ -0,0 +1,169 @@
+package org.folio.dao.cache;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of ids of referenced tables of a single tenant, lets DAOs reject references to non-existing
+ * records without a database round trip. Ids of a table are loaded on first use and kept up to date with saves
+ * and deletes of this module instance, so the index is meant for deployments where the module is the only writer
+ * of the referenced tables. While ids of a table are being loaded, every reference to it is considered existing.
+ * Index is enabled with {@code -Did.index.enabled=true}.
+ */
+public class IdIndex {
+
+  public static final String ENABLED_PROPERTY = "id.index.enabled";
+
+  private static final Map<String, IdIndex> INDEXES = new ConcurrentHashMap<>();
+
+  private final boolean enabled;
+  private final Map<String, TableIndex> tableIndexes = new ConcurrentHashMap<>();
+
+  IdIndex(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns index of the tenant, creates it on first access.
+   *
+   * @param tenantId tenant id
+   * @return tenant's index
+   */
+  public static IdIndex getInstance(String tenantId) {
+    return INDEXES.computeIfAbsent(tenantId, id -> new IdIndex(Boolean.getBoolean(ENABLED_PROPERTY)));
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return true if ids of the table are loaded and the given id is not among them
+   */
+  public boolean isKnownMissing(String table, String id) {
+    TableIndex tableIndex = tableIndexes.get(table);
+    return tableIndex != null && tableIndex.isKnownMissing(UUID.fromString(id));
+  }
+
+  /**
+   * @return true if ids of the table are neither loaded nor being loaded
+   */
+  public boolean isNotLoaded(String table) {
+    TableIndex tableIndex = tableIndexes.get(table);
+    return tableIndex == null || tableIndex.state == State.NOT_LOADED;
+  }
+
+  /**
+   * Marks table as being loaded.
+   *
+   * @return true if caller is the one to load ids of the table, false if they are loaded or being loaded already
+   */
+  public boolean startLoading(String table) {
+    return enabled && getTableIndex(table).startLoading();
+  }
+
+  /**
+   * Marks ids of the table as loaded, from now on ids missing in the index are considered missing in the table.
+   */
+  public void finishLoading(String table) {
+    getTableIndex(table).finishLoading();
+  }
+
+  /**
+   * Drops ids of the table, they are loaded again on next use.
+   */
+  public void invalidate(String table) {
+    getTableIndex(table).clear();
+  }
+
+  /**
+   * Adds id of a saved record, is ignored if ids of the table are neither loaded nor being loaded.
+   */
+  public void add(String table, String id) {
+    TableIndex tableIndex = tableIndexes.get(table);
+    if (tableIndex != null) {
+      tableIndex.add(UUID.fromString(id));
+    }
+  }
+
+  /**
+   * Adds id read by the load of the table, is ignored if the record was deleted after the load had started,
+   * as the page read before the delete must not bring the deleted id back.
+   */
+  public void addLoaded(String table, String id) {
+    TableIndex tableIndex = tableIndexes.get(table);
+    if (tableIndex != null) {
+      tableIndex.addLoaded(UUID.fromString(id));
+    }
+  }
+
+  /**
+   * Removes id of a deleted record.
+   */
+  public void remove(String table, String id) {
+    TableIndex tableIndex = tableIndexes.get(table);
+    if (tableIndex != null) {
+      tableIndex.remove(UUID.fromString(id));
+    }
+  }
+
+  private TableIndex getTableIndex(String table) {
+    return tableIndexes.computeIfAbsent(table, t -> new TableIndex());
+  }
+
+  private enum State {
+    NOT_LOADED, LOADING, LOADED
+  }
+
+  private static final class TableIndex {
+    private UuidSet ids = new UuidSet();
+    private UuidSet removedWhileLoading = new UuidSet();
+    private volatile State state = State.NOT_LOADED;
+
+    synchronized boolean startLoading() {
+      if (state != State.NOT_LOADED) {
+        return false;
+      }
+      state = State.LOADING;
+      return true;
+    }
+
+    synchronized void finishLoading() {
+      if (state == State.LOADING) {
+        state = State.LOADED;
+        removedWhileLoading = new UuidSet();
+      }
+    }
+
+    synchronized void clear() {
+      ids = new UuidSet();
+      removedWhileLoading = new UuidSet();
+      state = State.NOT_LOADED;
+    }
+
+    synchronized boolean isKnownMissing(UUID id) {
+      return state == State.LOADED && !ids.contains(id);
+    }
+
+    synchronized void add(UUID id) {
+      if (state != State.NOT_LOADED) {
+        ids.add(id);
+        removedWhileLoading.remove(id);
+      }
+    }
+
+    synchronized void addLoaded(UUID id) {
+      if (state == State.LOADING && !removedWhileLoading.contains(id)) {
+        ids.add(id);
+      }
+    }
+
+    synchronized void remove(UUID id) {
+      ids.remove(id);
+      if (state == State.LOADING) {
+        removedWhileLoading.add(id);
+      }
+    }
+  }
+}
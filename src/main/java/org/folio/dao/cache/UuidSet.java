@@ -0,0 +1,107 @@
+package org.folio.dao.cache;
+
+import java.util.UUID;
+
+/**
+ * Open addressing hash set of UUIDs kept as two arrays of longs and an array of used flags, 17 bytes per slot.
+ * The table is grown when it gets half full, so a grown set is between a quarter and a half full and takes
+ * about 34 to 68 bytes per UUID, instead of about 75 bytes of a {@code HashSet<UUID>} entry and its UUID object,
+ * and creates no object per UUID. Is not thread safe.
+ */
+class UuidSet {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private long[] mostSignificantBits = new long[INITIAL_CAPACITY];
+  private long[] leastSignificantBits = new long[INITIAL_CAPACITY];
+  private boolean[] used = new boolean[INITIAL_CAPACITY];
+  private int size;
+
+  boolean add(UUID uuid) {
+    if (size * 2 >= used.length) {
+      resize(used.length * 2);
+    }
+    return insert(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  boolean contains(UUID uuid) {
+    long msb = uuid.getMostSignificantBits();
+    long lsb = uuid.getLeastSignificantBits();
+    int mask = used.length - 1;
+    for (int slot = hash(msb, lsb) & mask; used[slot]; slot = (slot + 1) & mask) {
+      if (mostSignificantBits[slot] == msb && leastSignificantBits[slot] == lsb) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes UUID shifting back the entries of its probe sequence, so lookups need no tombstones.
+   */
+  boolean remove(UUID uuid) {
+    long msb = uuid.getMostSignificantBits();
+    long lsb = uuid.getLeastSignificantBits();
+    int mask = used.length - 1;
+    int slot = hash(msb, lsb) & mask;
+    while (used[slot] && !(mostSignificantBits[slot] == msb && leastSignificantBits[slot] == lsb)) {
+      slot = (slot + 1) & mask;
+    }
+    if (!used[slot]) {
+      return false;
+    }
+    int gap = slot;
+    for (int next = (gap + 1) & mask; used[next]; next = (next + 1) & mask) {
+      int home = hash(mostSignificantBits[next], leastSignificantBits[next]) & mask;
+      // entry may fill the gap only if its home slot is not within (gap, next]
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        mostSignificantBits[gap] = mostSignificantBits[next];
+        leastSignificantBits[gap] = leastSignificantBits[next];
+        gap = next;
+      }
+    }
+    used[gap] = false;
+    size--;
+    return true;
+  }
+
+  int size() {
+    return size;
+  }
+
+  private boolean insert(long msb, long lsb) {
+    int mask = used.length - 1;
+    int slot = hash(msb, lsb) & mask;
+    while (used[slot]) {
+      if (mostSignificantBits[slot] == msb && leastSignificantBits[slot] == lsb) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    used[slot] = true;
+    mostSignificantBits[slot] = msb;
+    leastSignificantBits[slot] = lsb;
+    size++;
+    return true;
+  }
+
+  private void resize(int capacity) {
+    long[] oldMostSignificantBits = mostSignificantBits;
+    long[] oldLeastSignificantBits = leastSignificantBits;
+    boolean[] oldUsed = used;
+    mostSignificantBits = new long[capacity];
+    leastSignificantBits = new long[capacity];
+    used = new boolean[capacity];
+    size = 0;
+    for (int i = 0; i < oldUsed.length; i++) {
+      if (oldUsed[i]) {
+        insert(oldMostSignificantBits[i], oldLeastSignificantBits[i]);
+      }
+    }
+  }
+
+  private static int hash(long msb, long lsb) {
+    long hash = msb * 0x9E3779B97F4A7C15L ^ lsb;
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
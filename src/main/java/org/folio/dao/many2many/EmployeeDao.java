@@ -1,10 +1,50 @@
 package org.folio.dao.many2many;
 
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import org.folio.rest.jaxrs.model.BatchResult;
 import org.folio.rest.jaxrs.model.Employee;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface EmployeeDao {
   String TABLE = "employees";
 
+  Future<Optional<Employee>> getById(String id);
+
+  Future<List<Optional<Employee>>> getByIds(Collection<String> ids);
+
+  Future<List<Employee>> getPage(String afterId, int limit);
+
+  /**
+   * Fetches page of employees having tickets to the location, every employee is returned once regardless of the number of tickets
+   *
+   * @param locationId location id
+   * @param afterId    id after which the page starts, null to start from the beginning
+   * @param limit      max number of records in the page
+   * @return future with records of the page ordered by id
+   */
+  Future<List<Employee>> getByLocationId(String locationId, String afterId, int limit);
+
   Future<String> save(Employee entity);
+
+  Future<String> upsert(Employee entity);
+
+  Future<Integer> export(WriteStream<Buffer> stream, String afterId, int maxRecords);
+
+  Future<BatchResult> saveBatch(List<Employee> entities);
+
+  Future<BatchResult> upsertBatch(List<Employee> entities);
+
+  /**
+   * Deletes the record, with cascade also tickets referencing it in the same transaction
+   *
+   * @param id      record id
+   * @param cascade whether to delete tickets referencing the record
+   * @return future with true if the record was deleted, false if it does not exist
+   */
+  Future<Boolean> delete(String id, boolean cascade);
 }
@@ -1,10 +1,50 @@
 package org.folio.dao.many2many;
 
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import org.folio.rest.jaxrs.model.BatchResult;
 import org.folio.rest.jaxrs.model.Location;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface LocationDao {
   String TABLE = "locations";
 
+  Future<Optional<Location>> getById(String id);
+
+  Future<List<Optional<Location>>> getByIds(Collection<String> ids);
+
+  Future<List<Location>> getPage(String afterId, int limit);
+
+  /**
+   * Fetches page of locations the employee has tickets to, every location is returned once regardless of the number of tickets
+   *
+   * @param employeeId employee id
+   * @param afterId    id after which the page starts, null to start from the beginning
+   * @param limit      max number of records in the page
+   * @return future with records of the page ordered by id
+   */
+  Future<List<Location>> getByEmployeeId(String employeeId, String afterId, int limit);
+
   Future<String> save(Location entity);
+
+  Future<String> upsert(Location entity);
+
+  Future<Integer> export(WriteStream<Buffer> stream, String afterId, int maxRecords);
+
+  Future<BatchResult> saveBatch(List<Location> entities);
+
+  Future<BatchResult> upsertBatch(List<Location> entities);
+
+  /**
+   * Deletes the record, with cascade also tickets referencing it in the same transaction
+   *
+   * @param id      record id
+   * @param cascade whether to delete tickets referencing the record
+   * @return future with true if the record was deleted, false if it does not exist
+   */
+  Future<Boolean> delete(String id, boolean cascade);
 }
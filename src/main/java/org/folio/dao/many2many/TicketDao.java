@@ -1,14 +1,75 @@
 package org.folio.dao.many2many;
 
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import org.folio.dao.ForeignKey;
+import org.folio.rest.jaxrs.model.BatchResult;
 import org.folio.rest.jaxrs.model.Ticket;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TicketDao {
   String TABLE = "tickets";
+  List<ForeignKey> FOREIGN_KEYS = Arrays.asList(
+    new ForeignKey("employeeId", EmployeeDao.TABLE),
+    new ForeignKey("locationId", LocationDao.TABLE));
+  String COUNTS_PER_EMPLOYEE_TABLE = "tickets_per_employee";
+  String COUNTS_PER_LOCATION_TABLE = "tickets_per_location";
 
   Future<Optional<Ticket>> getById(String id);
 
+  Future<List<Optional<Ticket>>> getByIds(Collection<String> ids);
+
+  /**
+   * Fetches page of records ordered by id, optionally only records referencing the given records
+   *
+   * @param afterId    id after which the page starts, null to start from the beginning
+   * @param limit      max number of records in the page
+   * @param employeeId employee id the tickets belong to, null to not filter by it
+   * @param locationId location id the tickets lead to, null to not filter by it
+   * @return future with records of the page
+   */
+  Future<List<Ticket>> getPage(String afterId, int limit, String employeeId, String locationId);
+
+  /**
+   * Fetches ticket together with referenced employee and/or location in one query
+   *
+   * @param id             ticket id
+   * @param expandEmployee whether to populate employee of the ticket
+   * @param expandLocation whether to populate location of the ticket
+   * @return future with ticket, or empty optional if ticket does not exist
+   */
+  Future<Optional<Ticket>> getByIdExpanded(String id, boolean expandEmployee, boolean expandLocation);
+
+  /**
+   * Returns number of tickets of the employee from counts maintained by triggers on every write
+   *
+   * @param employeeId employee id
+   * @return future with number of tickets, 0 if employee has none or does not exist
+   */
+  Future<Long> countByEmployeeId(String employeeId);
+
+  /**
+   * Returns number of tickets to the location from counts maintained by triggers on every write
+   *
+   * @param locationId location id
+   * @return future with number of tickets, 0 if location has none or does not exist
+   */
+  Future<Long> countByLocationId(String locationId);
+
   Future<String> save(Ticket entity);
+
+  Future<String> upsert(Ticket entity);
+
+  Future<Integer> export(WriteStream<Buffer> stream, String afterId, int maxRecords);
+
+  Future<BatchResult> saveBatch(List<Ticket> entities);
+
+  Future<BatchResult> upsertBatch(List<Ticket> entities);
+
+  Future<Boolean> delete(String id);
 }
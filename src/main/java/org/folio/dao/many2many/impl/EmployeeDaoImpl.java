@@ -2,22 +2,39 @@ package org.folio.dao.many2many.impl;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import org.folio.dao.AbstractEntityDao;
+import org.folio.dao.ForeignKey;
 import org.folio.dao.many2many.EmployeeDao;
+import org.folio.dao.many2many.TicketDao;
 import org.folio.rest.jaxrs.model.Employee;
-import org.folio.rest.persist.PostgresClient;
 
-public class EmployeeDaoImpl implements EmployeeDao {
+import java.util.Collections;
+import java.util.List;
 
-  private PostgresClient pgClient;
+public class EmployeeDaoImpl extends AbstractEntityDao<Employee> implements EmployeeDao {
 
   public EmployeeDaoImpl(Vertx vertx, String tenantId) {
-    pgClient = PostgresClient.getInstance(vertx, tenantId);
+    super(vertx, tenantId, TABLE, Employee.class);
+  }
+
+  @Override
+  public Future<List<Employee>> getByLocationId(String locationId, String afterId, int limit) {
+    if (!isUuid(locationId)) {
+      return Future.succeededFuture(Collections.emptyList());
+    }
+    String condition = "_id IN (SELECT " + referencedId("ticket", "employeeId") + " FROM " + fullTableName(TicketDao.TABLE) + " ticket "
+      + "WHERE " + referenceEquals("ticket", "locationId") + ")";
+    return selectPage(afterId, limit, condition, new JsonArray().add(locationId));
   }
 
   @Override
   public Future<String> save(Employee employee) {
-    Future<String> future = Future.future();
-    pgClient.save(TABLE, employee.getId(), employee, future.completer());
-    return future;
+    return save(employee, employee.getId());
+  }
+
+  @Override
+  protected List<ForeignKey> getReferencingKeys() {
+    return referencingKeys(TicketDao.TABLE, TicketDao.FOREIGN_KEYS);
   }
 }
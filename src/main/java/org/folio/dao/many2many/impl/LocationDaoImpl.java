@@ -2,22 +2,39 @@ package org.folio.dao.many2many.impl;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import org.folio.dao.AbstractEntityDao;
+import org.folio.dao.ForeignKey;
 import org.folio.dao.many2many.LocationDao;
+import org.folio.dao.many2many.TicketDao;
 import org.folio.rest.jaxrs.model.Location;
-import org.folio.rest.persist.PostgresClient;
 
-public class LocationDaoImpl implements LocationDao {
+import java.util.Collections;
+import java.util.List;
 
-  private PostgresClient pgClient;
+public class LocationDaoImpl extends AbstractEntityDao<Location> implements LocationDao {
 
   public LocationDaoImpl(Vertx vertx, String tenantId) {
-    pgClient = PostgresClient.getInstance(vertx, tenantId);
+    super(vertx, tenantId, TABLE, Location.class);
+  }
+
+  @Override
+  public Future<List<Location>> getByEmployeeId(String employeeId, String afterId, int limit) {
+    if (!isUuid(employeeId)) {
+      return Future.succeededFuture(Collections.emptyList());
+    }
+    String condition = "_id IN (SELECT " + referencedId("ticket", "locationId") + " FROM " + fullTableName(TicketDao.TABLE) + " ticket "
+      + "WHERE " + referenceEquals("ticket", "employeeId") + ")";
+    return selectPage(afterId, limit, condition, new JsonArray().add(employeeId));
   }
 
   @Override
   public Future<String> save(Location location) {
-    Future<String> future = Future.future();
-    pgClient.save(TABLE, location.getId(), location, future.completer());
-    return future;
+    return save(location, location.getId());
+  }
+
+  @Override
+  protected List<ForeignKey> getReferencingKeys() {
+    return referencingKeys(TicketDao.TABLE, TicketDao.FOREIGN_KEYS);
   }
 }
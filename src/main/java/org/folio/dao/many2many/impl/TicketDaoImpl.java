@@ -2,44 +2,82 @@ package org.folio.dao.many2many.impl;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import org.folio.dao.AbstractEntityDao;
+import org.folio.dao.many2many.EmployeeDao;
+import org.folio.dao.many2many.LocationDao;
 import org.folio.dao.many2many.TicketDao;
+import org.folio.rest.jaxrs.model.Employee;
+import org.folio.rest.jaxrs.model.Location;
 import org.folio.rest.jaxrs.model.Ticket;
-import org.folio.rest.persist.Criteria.Criteria;
-import org.folio.rest.persist.Criteria.Criterion;
-import org.folio.rest.persist.PostgresClient;
-import org.folio.rest.persist.interfaces.Results;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-import static org.folio.dataimport.util.DaoUtil.constructCriteria;
-
-public class TicketDaoImpl implements TicketDao {
-
-  private static final String ID_FIELD = "'id'";
-  private PostgresClient pgClient;
+public class TicketDaoImpl extends AbstractEntityDao<Ticket> implements TicketDao {
 
   public TicketDaoImpl(Vertx vertx, String tenantId) {
-    pgClient = PostgresClient.getInstance(vertx, tenantId);
+    super(vertx, tenantId, TABLE, Ticket.class, FOREIGN_KEYS);
   }
 
   @Override
-  public Future<Optional<Ticket>> getById(String id) {
-    Future<Results<Ticket>> future = Future.future();
-    try {
-      Criteria idCrit = constructCriteria(ID_FIELD, id);
-      pgClient.get(TABLE, Ticket.class, new Criterion(idCrit), true, future.completer());
-    } catch (Exception e) {
-      future.fail(e);
+  public Future<List<Ticket>> getPage(String afterId, int limit, String employeeId, String locationId) {
+    Map<String, String> filters = new HashMap<>();
+    filters.put("employeeId", employeeId);
+    filters.put("locationId", locationId);
+    return selectPage(afterId, limit, filters);
+  }
+
+  @Override
+  public Future<Optional<Ticket>> getByIdExpanded(String id, boolean expandEmployee, boolean expandLocation) {
+    if (!isUuid(id)) {
+      return Future.succeededFuture(Optional.empty());
+    }
+    StringBuilder sql = new StringBuilder("SELECT ticket.jsonb");
+    StringBuilder joins = new StringBuilder();
+    if (expandEmployee) {
+      sql.append(", employee.jsonb AS employee");
+      joins.append(" LEFT JOIN ").append(fullTableName(EmployeeDao.TABLE))
+        .append(" employee ON employee._id = ").append(referencedId("ticket", "employeeId"));
+    }
+    if (expandLocation) {
+      sql.append(", location.jsonb AS location");
+      joins.append(" LEFT JOIN ").append(fullTableName(LocationDao.TABLE))
+        .append(" location ON location._id = ").append(referencedId("ticket", "locationId"));
     }
-    return future
-      .map(Results::getResults)
-      .map(entities -> entities.isEmpty() ? Optional.empty() : Optional.of(entities.get(0)));
+    sql.append(" FROM ").append(fullTableName(TABLE)).append(" ticket")
+      .append(joins)
+      .append(" WHERE ticket._id = ?::uuid");
+
+    return select(sql.toString(), new JsonArray().add(id))
+      .map(resultSet -> resultSet.getRows().stream()
+        .findFirst()
+        .map(row -> {
+          Ticket ticket = toJsonObject(row.getValue("jsonb")).mapTo(Ticket.class);
+          if (row.getValue("employee") != null) {
+            ticket.setEmployee(toJsonObject(row.getValue("employee")).mapTo(Employee.class));
+          }
+          if (row.getValue("location") != null) {
+            ticket.setLocation(toJsonObject(row.getValue("location")).mapTo(Location.class));
+          }
+          return ticket;
+        }));
+  }
+
+  @Override
+  public Future<Long> countByEmployeeId(String employeeId) {
+    return countReferencing(COUNTS_PER_EMPLOYEE_TABLE, employeeId);
+  }
+
+  @Override
+  public Future<Long> countByLocationId(String locationId) {
+    return countReferencing(COUNTS_PER_LOCATION_TABLE, locationId);
   }
 
   @Override
   public Future<String> save(Ticket ticket) {
-    Future<String> future = Future.future();
-    pgClient.save(TABLE, ticket.getId(), ticket, future.completer());
-    return future;
+    return save(ticket, ticket.getId());
   }
 }
@@ -1,8 +1,14 @@
 package org.folio.dao.one2many;
 
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import org.folio.rest.jaxrs.model.BatchResult;
 import org.folio.rest.jaxrs.model.AirPlane;
+import org.folio.rest.jaxrs.model.Detail;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AirPlaneDao {
@@ -10,5 +16,43 @@ public interface AirPlaneDao {
 
   Future<Optional<AirPlane>> getById(String id);
 
+  Future<List<Optional<AirPlane>>> getByIds(Collection<String> ids);
+
+  Future<List<AirPlane>> getPage(String afterId, int limit);
+
+  /**
+   * Fetches airplane together with all its details in one query
+   *
+   * @param id airplane id
+   * @return future with airplane with populated details, or empty optional if airplane does not exist
+   */
+  Future<Optional<AirPlane>> getByIdWithDetails(String id);
+
   Future<String> save(AirPlane entity);
+
+  Future<String> upsert(AirPlane entity);
+
+  /**
+   * Saves airplane and its details in one transaction with one statement
+   *
+   * @param airPlane airplane to save
+   * @param details  details of the airplane, airPlaneId of a detail defaults to the airplane id
+   * @return future with airplane id
+   */
+  Future<String> saveWithDetails(AirPlane airPlane, List<Detail> details);
+
+  Future<Integer> export(WriteStream<Buffer> stream, String afterId, int maxRecords);
+
+  Future<BatchResult> saveBatch(List<AirPlane> entities);
+
+  Future<BatchResult> upsertBatch(List<AirPlane> entities);
+
+  /**
+   * Deletes the record, with cascade also details referencing it in the same transaction
+   *
+   * @param id      record id
+   * @param cascade whether to delete details referencing the record
+   * @return future with true if the record was deleted, false if it does not exist
+   */
+  Future<Boolean> delete(String id, boolean cascade);
 }
@@ -1,14 +1,56 @@
 package org.folio.dao.one2many;
 
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import org.folio.dao.ForeignKey;
+import org.folio.rest.jaxrs.model.BatchResult;
 import org.folio.rest.jaxrs.model.Detail;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface DetailDao {
   String TABLE = "details";
+  List<ForeignKey> FOREIGN_KEYS = Arrays.asList(
+    new ForeignKey("airPlaneId", AirPlaneDao.TABLE));
+  String COUNTS_PER_AIRPLANE_TABLE = "details_per_airplane";
 
   Future<Optional<Detail>> getById(String id);
 
+  Future<List<Optional<Detail>>> getByIds(Collection<String> ids);
+
+  /**
+   * Fetches page of records ordered by id, optionally only records referencing the given records
+   *
+   * @param afterId    id after which the page starts, null to start from the beginning
+   * @param limit      max number of records in the page
+   * @param airPlaneId airplane id the details belong to, null to not filter by it
+   * @return future with records of the page
+   */
+  Future<List<Detail>> getPage(String afterId, int limit, String airPlaneId);
+
+  Future<List<Detail>> getByAirPlaneId(String airPlaneId);
+
+  /**
+   * Returns number of details of the airplane from counts maintained by triggers on every write
+   *
+   * @param airPlaneId airplane id
+   * @return future with number of details, 0 if airplane has none or does not exist
+   */
+  Future<Long> countByAirPlaneId(String airPlaneId);
+
   Future<String> save(Detail entity);
+
+  Future<String> upsert(Detail entity);
+
+  Future<Integer> export(WriteStream<Buffer> stream, String afterId, int maxRecords);
+
+  Future<BatchResult> saveBatch(List<Detail> entities);
+
+  Future<BatchResult> upsertBatch(List<Detail> entities);
+
+  Future<Boolean> delete(String id);
 }
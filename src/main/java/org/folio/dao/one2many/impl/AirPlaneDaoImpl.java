@@ -2,44 +2,72 @@ package org.folio.dao.one2many.impl;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.folio.dao.AbstractEntityDao;
+import org.folio.dao.ForeignKey;
 import org.folio.dao.one2many.AirPlaneDao;
+import org.folio.dao.one2many.DetailDao;
 import org.folio.rest.jaxrs.model.AirPlane;
-import org.folio.rest.persist.Criteria.Criteria;
-import org.folio.rest.persist.Criteria.Criterion;
-import org.folio.rest.persist.PostgresClient;
-import org.folio.rest.persist.interfaces.Results;
+import org.folio.rest.jaxrs.model.Detail;
 
+import javax.ws.rs.BadRequestException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
-import static org.folio.dataimport.util.DaoUtil.constructCriteria;
-
-public class AirPlaneDaoImpl implements AirPlaneDao {
-
-  private static final String ID_FIELD = "'id'";
-  private PostgresClient pgClient;
+public class AirPlaneDaoImpl extends AbstractEntityDao<AirPlane> implements AirPlaneDao {
 
   public AirPlaneDaoImpl(Vertx vertx, String tenantId) {
-    pgClient = PostgresClient.getInstance(vertx, tenantId);
+    super(vertx, tenantId, TABLE, AirPlane.class);
   }
 
   @Override
-  public Future<Optional<AirPlane>> getById(String id) {
-    Future<Results<AirPlane>> future = Future.future();
-    try {
-      Criteria idCrit = constructCriteria(ID_FIELD, id);
-      pgClient.get(TABLE, AirPlane.class, new Criterion(idCrit), true, future.completer());
-    } catch (Exception e) {
-      future.fail(e);
+  public Future<Optional<AirPlane>> getByIdWithDetails(String id) {
+    if (!isUuid(id)) {
+      return Future.succeededFuture(Optional.empty());
     }
-    return future
-      .map(Results::getResults)
-      .map(entities -> entities.isEmpty() ? Optional.empty() : Optional.of(entities.get(0)));
+    String sql = "SELECT airplane.jsonb, COALESCE("
+      + "(SELECT jsonb_agg(detail.jsonb ORDER BY detail._id) FROM " + fullTableName(DetailDao.TABLE) + " detail "
+      + "WHERE " + referencesRow("detail", "airPlaneId", "airplane") + "), '[]'::jsonb) AS details "
+      + "FROM " + fullTableName(TABLE) + " airplane WHERE airplane._id = ?::uuid";
+    return select(sql, new JsonArray().add(id))
+      .map(resultSet -> resultSet.getRows().stream()
+        .findFirst()
+        .map(row -> toJsonObject(row.getValue("jsonb")).mapTo(AirPlane.class)
+          .withDetails(toJsonArray(row.getValue("details")).stream()
+            .map(detail -> ((JsonObject) detail).mapTo(Detail.class))
+            .collect(Collectors.toList()))));
   }
 
   @Override
   public Future<String> save(AirPlane airplane) {
-    Future<String> future = Future.future();
-    pgClient.save(TABLE, airplane.getId(), airplane, future.completer());
-    return future;
+    return save(airplane, airplane.getId());
+  }
+
+  @Override
+  public Future<String> saveWithDetails(AirPlane airPlane, List<Detail> details) {
+    for (Detail detail : details) {
+      if (detail.getAirPlaneId() == null) {
+        detail.setAirPlaneId(airPlane.getId());
+      } else if (!detail.getAirPlaneId().equals(airPlane.getId())) {
+        return Future.failedFuture(new BadRequestException("Detail " + detail.getId() + " belongs to another airplane"));
+      }
+    }
+    JsonObject airPlaneRecord = JsonObject.mapFrom(airPlane);
+    // details are stored in their own table
+    airPlaneRecord.remove("details");
+    Map<String, List<JsonObject>> recordsByTable = new LinkedHashMap<>();
+    recordsByTable.put(TABLE, Collections.singletonList(airPlaneRecord));
+    recordsByTable.put(DetailDao.TABLE, details.stream().map(JsonObject::mapFrom).collect(Collectors.toList()));
+    return insertGraph(recordsByTable).map(v -> airPlane.getId());
+  }
+
+  @Override
+  protected List<ForeignKey> getReferencingKeys() {
+    return referencingKeys(DetailDao.TABLE, DetailDao.FOREIGN_KEYS);
   }
 }
@@ -2,44 +2,46 @@ package org.folio.dao.one2many.impl;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import org.folio.dao.AbstractEntityDao;
 import org.folio.dao.one2many.DetailDao;
 import org.folio.rest.jaxrs.model.Detail;
-import org.folio.rest.persist.Criteria.Criteria;
-import org.folio.rest.persist.Criteria.Criterion;
-import org.folio.rest.persist.PostgresClient;
-import org.folio.rest.persist.interfaces.Results;
 
-import java.util.Optional;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
-import static org.folio.dataimport.util.DaoUtil.constructCriteria;
-
-public class DetailDaoImpl implements DetailDao {
-
-  private static final String ID_FIELD = "'id'";
-  private PostgresClient pgClient;
+public class DetailDaoImpl extends AbstractEntityDao<Detail> implements DetailDao {
 
   public DetailDaoImpl(Vertx vertx, String tenantId) {
-    pgClient = PostgresClient.getInstance(vertx, tenantId);
+    super(vertx, tenantId, TABLE, Detail.class, FOREIGN_KEYS);
   }
 
   @Override
-  public Future<Optional<Detail>> getById(String id) {
-    Future<Results<Detail>> future = Future.future();
-    try {
-      Criteria idCrit = constructCriteria(ID_FIELD, id);
-      pgClient.get(TABLE, Detail.class, new Criterion(idCrit), true, future.completer());
-    } catch (Exception e) {
-      future.fail(e);
+  public Future<List<Detail>> getByAirPlaneId(String airPlaneId) {
+    if (!isUuid(airPlaneId)) {
+      return Future.succeededFuture(Collections.emptyList());
     }
-    return future
-      .map(Results::getResults)
-      .map(entities -> entities.isEmpty() ? Optional.empty() : Optional.of(entities.get(0)));
+    String sql = "SELECT detail.jsonb FROM " + fullTableName(TABLE) + " detail "
+      + "WHERE " + referenceEquals("detail", "airPlaneId") + " ORDER BY detail._id";
+    return select(sql, new JsonArray().add(airPlaneId))
+      .map(resultSet -> resultSet.getRows().stream()
+        .map(row -> toJsonObject(row.getValue("jsonb")).mapTo(Detail.class))
+        .collect(Collectors.toList()));
+  }
+
+  @Override
+  public Future<Long> countByAirPlaneId(String airPlaneId) {
+    return countReferencing(COUNTS_PER_AIRPLANE_TABLE, airPlaneId);
+  }
+
+  @Override
+  public Future<List<Detail>> getPage(String afterId, int limit, String airPlaneId) {
+    return selectPage(afterId, limit, Collections.singletonMap("airPlaneId", airPlaneId));
   }
 
   @Override
   public Future<String> save(Detail detail) {
-    Future<String> future = Future.future();
-    pgClient.save(TABLE, detail.getId(), detail, future.completer());
-    return future;
+    return save(detail, detail.getId());
   }
 }
@@ -1,8 +1,13 @@
 package org.folio.dao.one2one;
 
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import org.folio.rest.jaxrs.model.BatchResult;
 import org.folio.rest.jaxrs.model.Passport;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PassportDao {
@@ -10,5 +15,26 @@ public interface PassportDao {
 
   Future<Optional<Passport>> getById(String id);
 
+  Future<List<Optional<Passport>>> getByIds(Collection<String> ids);
+
+  Future<List<Passport>> getPage(String afterId, int limit);
+
   Future<String> save(Passport entity);
+
+  Future<String> upsert(Passport entity);
+
+  Future<Integer> export(WriteStream<Buffer> stream, String afterId, int maxRecords);
+
+  Future<BatchResult> saveBatch(List<Passport> entities);
+
+  Future<BatchResult> upsertBatch(List<Passport> entities);
+
+  /**
+   * Deletes the record, with cascade also the person referencing it in the same transaction
+   *
+   * @param id      record id
+   * @param cascade whether to delete the person referencing the record
+   * @return future with true if the record was deleted, false if it does not exist
+   */
+  Future<Boolean> delete(String id, boolean cascade);
 }
@@ -1,14 +1,55 @@
 package org.folio.dao.one2one;
 
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import org.folio.dao.ForeignKey;
+import org.folio.rest.jaxrs.model.BatchResult;
+import org.folio.rest.jaxrs.model.Passport;
 import org.folio.rest.jaxrs.model.Person;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PersonDao {
   String TABLE = "persons";
+  List<ForeignKey> FOREIGN_KEYS = Arrays.asList(
+    new ForeignKey("passportId", PassportDao.TABLE));
 
   Future<Optional<Person>> getById(String id);
 
+  Future<List<Optional<Person>>> getByIds(Collection<String> ids);
+
+  /**
+   * Fetches page of records ordered by id, optionally only records referencing the given records
+   *
+   * @param afterId    id after which the page starts, null to start from the beginning
+   * @param limit      max number of records in the page
+   * @param passportId passport id of the person, null to not filter by it
+   * @return future with records of the page
+   */
+  Future<List<Person>> getPage(String afterId, int limit, String passportId);
+
   Future<String> save(Person entity);
+
+  Future<String> upsert(Person entity);
+
+  /**
+   * Saves person and their passport in one transaction with one statement
+   *
+   * @param person   person to save, passportId defaults to the passport id
+   * @param passport passport of the person
+   * @return future with person id
+   */
+  Future<String> saveWithPassport(Person person, Passport passport);
+
+  Future<Integer> export(WriteStream<Buffer> stream, String afterId, int maxRecords);
+
+  Future<BatchResult> saveBatch(List<Person> entities);
+
+  Future<BatchResult> upsertBatch(List<Person> entities);
+
+  Future<Boolean> delete(String id);
 }
@@ -2,44 +2,45 @@ package org.folio.dao.one2one.impl;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.folio.dao.AbstractEntityDao;
+import org.folio.dao.one2one.PassportDao;
 import org.folio.dao.one2one.PersonDao;
+import org.folio.rest.jaxrs.model.Passport;
 import org.folio.rest.jaxrs.model.Person;
-import org.folio.rest.persist.Criteria.Criteria;
-import org.folio.rest.persist.Criteria.Criterion;
-import org.folio.rest.persist.PostgresClient;
-import org.folio.rest.persist.interfaces.Results;
 
-import java.util.Optional;
+import javax.ws.rs.BadRequestException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-import static org.folio.dataimport.util.DaoUtil.constructCriteria;
-
-public class PersonDaoImpl implements PersonDao {
-
-  private static final String ID_FIELD = "'id'";
-  private PostgresClient pgClient;
+public class PersonDaoImpl extends AbstractEntityDao<Person> implements PersonDao {
 
   public PersonDaoImpl(Vertx vertx, String tenantId) {
-    pgClient = PostgresClient.getInstance(vertx, tenantId);
+    super(vertx, tenantId, TABLE, Person.class, FOREIGN_KEYS);
   }
 
   @Override
-  public Future<Optional<Person>> getById(String id) {
-    Future<Results<Person>> future = Future.future();
-    try {
-      Criteria idCrit = constructCriteria(ID_FIELD, id);
-      pgClient.get(TABLE, Person.class, new Criterion(idCrit), true, future.completer());
-    } catch (Exception e) {
-      future.fail(e);
-    }
-    return future
-      .map(Results::getResults)
-      .map(entities -> entities.isEmpty() ? Optional.empty() : Optional.of(entities.get(0)));
+  public Future<List<Person>> getPage(String afterId, int limit, String passportId) {
+    return selectPage(afterId, limit, Collections.singletonMap("passportId", passportId));
   }
 
   @Override
   public Future<String> save(Person entity) {
-    Future<String> future = Future.future();
-    pgClient.save(TABLE, entity.getId(), entity, future.completer());
-    return future;
+    return save(entity, entity.getId());
+  }
+
+  @Override
+  public Future<String> saveWithPassport(Person person, Passport passport) {
+    if (person.getPassportId() == null) {
+      person.setPassportId(passport.getId());
+    } else if (!person.getPassportId().equals(passport.getId())) {
+      return Future.failedFuture(new BadRequestException("Person references another passport"));
+    }
+    Map<String, List<JsonObject>> recordsByTable = new LinkedHashMap<>();
+    recordsByTable.put(PassportDao.TABLE, Collections.singletonList(JsonObject.mapFrom(passport)));
+    recordsByTable.put(TABLE, Collections.singletonList(JsonObject.mapFrom(person)));
+    return insertGraph(recordsByTable).map(v -> person.getId());
   }
 }
@@ -0,0 +1,124 @@
+package org.folio.dao.util;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Gathers lookups by id of a table and resolves them with one multi-id query. Lookups are gathered until
+ * the current event loop task ends, or for {@code dao.readBatching.window.ms} milliseconds if it is set,
+ * and at most {@code dao.readBatching.maxBatchSize} ids are resolved by one query. Every caller gets its own record.
+ * Read batching is enabled per table by listing tables in {@code dao.readBatching.tables}, e.g. "tickets,details".
+ */
+public class ReadBatcher {
+
+  public static final String TABLES_PROPERTY = "dao.readBatching.tables";
+  public static final String MAX_BATCH_SIZE_PROPERTY = "dao.readBatching.maxBatchSize";
+  public static final String WINDOW_PROPERTY = "dao.readBatching.window.ms";
+
+  private static final int DEFAULT_MAX_BATCH_SIZE = 500;
+  private static final long DEFAULT_WINDOW_MS = 0;
+
+  private final Vertx vertx;
+  private final Function<List<String>, Future<List<JsonObject>>> batchLoader;
+  private final int maxBatchSize;
+  private final long windowMillis;
+  private Map<String, List<Future<Optional<JsonObject>>>> futuresById = new LinkedHashMap<>();
+  private boolean flushScheduled;
+
+  public ReadBatcher(Vertx vertx, Function<List<String>, Future<List<JsonObject>>> batchLoader, int maxBatchSize, long windowMillis) {
+    this.vertx = vertx;
+    this.batchLoader = batchLoader;
+    this.maxBatchSize = maxBatchSize;
+    this.windowMillis = windowMillis;
+  }
+
+  /**
+   * Creates batcher for the table if read batching is enabled for it.
+   *
+   * @param batchLoader selects records by well-formed UUIDs
+   * @return batcher or null if read batching is disabled for the table
+   */
+  public static ReadBatcher forTable(Vertx vertx, String table, Function<List<String>, Future<List<JsonObject>>> batchLoader) {
+    boolean enabled = Arrays.stream(System.getProperty(TABLES_PROPERTY, "").split(","))
+      .map(String::trim)
+      .anyMatch(table::equals);
+    if (!enabled) {
+      return null;
+    }
+    return new ReadBatcher(vertx, batchLoader,
+      Integer.getInteger(MAX_BATCH_SIZE_PROPERTY, DEFAULT_MAX_BATCH_SIZE),
+      Long.getLong(WINDOW_PROPERTY, DEFAULT_WINDOW_MS));
+  }
+
+  /**
+   * Queues id to be resolved with the next batch.
+   *
+   * @param id well-formed UUID
+   * @return future with record, or empty optional if record does not exist
+   */
+  public Future<Optional<JsonObject>> load(String id) {
+    Future<Optional<JsonObject>> future = Future.future();
+    Map<String, List<Future<Optional<JsonObject>>>> batch = null;
+    synchronized (this) {
+      // UUIDs are compared in lower case, the way the database prints them
+      futuresById.computeIfAbsent(id.toLowerCase(), k -> new ArrayList<>()).add(future);
+      if (futuresById.size() >= maxBatchSize) {
+        batch = futuresById;
+        futuresById = new LinkedHashMap<>();
+      } else if (!flushScheduled) {
+        // a scheduled flush resolves whatever is queued at that moment, so it is not cancelled by a flush of a full batch
+        flushScheduled = true;
+        if (windowMillis > 0) {
+          vertx.setTimer(windowMillis, timerId -> onScheduledFlush());
+        } else {
+          vertx.runOnContext(v -> onScheduledFlush());
+        }
+      }
+    }
+    if (batch != null) {
+      flush(batch);
+    }
+    return future;
+  }
+
+  private void onScheduledFlush() {
+    Map<String, List<Future<Optional<JsonObject>>>> batch;
+    synchronized (this) {
+      flushScheduled = false;
+      batch = futuresById;
+      futuresById = new LinkedHashMap<>();
+    }
+    if (!batch.isEmpty()) {
+      flush(batch);
+    }
+  }
+
+  private void flush(Map<String, List<Future<Optional<JsonObject>>>> batch) {
+    try {
+      batchLoader.apply(new ArrayList<>(batch.keySet())).setHandler(ar -> complete(batch, ar));
+    } catch (Exception e) {
+      batch.values().forEach(futures -> futures.forEach(future -> future.fail(e)));
+    }
+  }
+
+  private void complete(Map<String, List<Future<Optional<JsonObject>>>> batch, AsyncResult<List<JsonObject>> ar) {
+    if (ar.failed()) {
+      batch.values().forEach(futures -> futures.forEach(future -> future.fail(ar.cause())));
+      return;
+    }
+    Map<String, JsonObject> recordsById = new HashMap<>();
+    ar.result().forEach(record -> recordsById.put(record.getString("id").toLowerCase(), record));
+    batch.forEach((id, futures) -> futures.forEach(future -> future.complete(Optional.ofNullable(recordsById.get(id)))));
+  }
+}
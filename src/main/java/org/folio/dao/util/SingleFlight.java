@@ -0,0 +1,74 @@
+package org.folio.dao.util;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key. The first caller starts the load, callers arriving while
+ * it is in flight wait for it instead of starting their own, and all of them get the same outcome.
+ * Nothing is kept once the load completes, so a later call starts a new load.
+ *
+ * @param <K> key type
+ * @param <V> loaded value type, is shared by all callers of a load and should not be modified
+ */
+public class SingleFlight<K, V> {
+
+  private final Map<K, List<Future<V>>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder loads;
+  private final LongAdder collapsed;
+
+  /**
+   * @param loads     incremented by every started load
+   * @param collapsed incremented by every call served by a load started by another call
+   */
+  public SingleFlight(LongAdder loads, LongAdder collapsed) {
+    this.loads = loads;
+    this.collapsed = collapsed;
+  }
+
+  /**
+   * Joins the load of the key in flight or starts it.
+   *
+   * @param key    key to load
+   * @param loader starts the load, is called only if no load of the key is in flight
+   * @return future with outcome of the load
+   */
+  public Future<V> execute(K key, Supplier<Future<V>> loader) {
+    Future<V> future = Future.future();
+    boolean[] started = {false};
+    inFlight.compute(key, (k, waiters) -> {
+      if (waiters == null) {
+        started[0] = true;
+        waiters = new ArrayList<>();
+      }
+      waiters.add(future);
+      return waiters;
+    });
+    if (!started[0]) {
+      collapsed.increment();
+      return future;
+    }
+    loads.increment();
+    Future<V> load;
+    try {
+      load = loader.get();
+    } catch (Exception e) {
+      load = Future.failedFuture(e);
+    }
+    load.setHandler(ar -> complete(key, ar));
+    return future;
+  }
+
+  private void complete(K key, AsyncResult<V> ar) {
+    // calls arriving after the removal start a new load
+    List<Future<V>> waiters = inFlight.remove(key);
+    waiters.forEach(waiter -> waiter.handle(ar));
+  }
+}
@@ -0,0 +1,182 @@
+package org.folio.dao.util;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.folio.metrics.Histogram;
+import org.folio.metrics.MetricsRegistry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fair scheduler of database round trips of DAOs across tenants. At most {@code dao.scheduler.maxConcurrency}
+ * round trips run at once and at most {@code dao.scheduler.tenantMaxConcurrency} of them belong to one tenant,
+ * the tenant limit can be set for a single tenant with {@code dao.scheduler.tenantMaxConcurrency.<tenant id>}.
+ * Round trips over the limits wait in the queue of their tenant, and a freed slot is given to the tenants with waiting
+ * round trips in turn, so a tenant flooding the module waits for its own slots while other tenants keep getting theirs.
+ * A scheduled operation must not wait for another scheduled operation, otherwise operations holding all slots
+ * could wait for each other forever. Scheduling is enabled with {@code dao.scheduler.enabled}.
+ */
+public class TenantScheduler {
+
+  public static final String ENABLED_PROPERTY = "dao.scheduler.enabled";
+  public static final String MAX_CONCURRENCY_PROPERTY = "dao.scheduler.maxConcurrency";
+  public static final String TENANT_MAX_CONCURRENCY_PROPERTY = "dao.scheduler.tenantMaxConcurrency";
+
+  private static final int DEFAULT_MAX_CONCURRENCY = 16;
+  private static final int DEFAULT_TENANT_MAX_CONCURRENCY = 4;
+  private static final TenantScheduler INSTANCE = new TenantScheduler(Boolean.getBoolean(ENABLED_PROPERTY),
+    Integer.getInteger(MAX_CONCURRENCY_PROPERTY, DEFAULT_MAX_CONCURRENCY),
+    Integer.getInteger(TENANT_MAX_CONCURRENCY_PROPERTY, DEFAULT_TENANT_MAX_CONCURRENCY));
+
+  private final boolean enabled;
+  private final int maxConcurrency;
+  private final int tenantMaxConcurrency;
+  private final Map<String, TenantQueue> tenantQueues = new HashMap<>();
+  /**
+   * Tenants having waiting operations, in the order they get the next free slot
+   */
+  private final Deque<TenantQueue> turns = new ArrayDeque<>();
+  private int running;
+
+  TenantScheduler(boolean enabled, int maxConcurrency, int tenantMaxConcurrency) {
+    this.enabled = enabled;
+    this.maxConcurrency = maxConcurrency;
+    this.tenantMaxConcurrency = tenantMaxConcurrency;
+  }
+
+  public static TenantScheduler getInstance() {
+    return INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Starts the operation if neither the total nor the tenant limit is reached, queues it otherwise.
+   * Queued operation is started on the context it was scheduled from.
+   *
+   * @param tenantId  tenant the operation works for
+   * @param operation starts the operation
+   * @return future with outcome of the operation
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Future<T> schedule(String tenantId, Supplier<Future<T>> operation) {
+    Task task = new Task((Supplier<Future<Object>>) (Supplier<?>) operation, Vertx.currentContext());
+    TenantQueue tenantQueue;
+    boolean startNow;
+    synchronized (this) {
+      tenantQueue = tenantQueues.computeIfAbsent(tenantId, TenantQueue::new);
+      startNow = tenantQueue.waiting.isEmpty() && running < maxConcurrency && tenantQueue.running < tenantQueue.limit;
+      if (startNow) {
+        acquire(tenantQueue);
+      } else {
+        tenantQueue.waiting.add(task);
+        tenantQueue.queued.increment();
+        if (tenantQueue.waiting.size() == 1) {
+          turns.add(tenantQueue);
+        }
+      }
+    }
+    if (startNow) {
+      execute(tenantQueue, task);
+    }
+    return (Future<T>) task.result;
+  }
+
+  private void release(TenantQueue tenantQueue) {
+    List<Task> tasks = new ArrayList<>();
+    List<TenantQueue> taskQueues = new ArrayList<>();
+    synchronized (this) {
+      running--;
+      tenantQueue.running--;
+      tenantQueue.runningGauge.decrement();
+      // every tenant gets one slot per turn, tenants at their own limit are skipped
+      int skipped = 0;
+      while (running < maxConcurrency && !turns.isEmpty() && skipped < turns.size()) {
+        TenantQueue next = turns.poll();
+        if (next.running < next.limit) {
+          tasks.add(next.waiting.poll());
+          taskQueues.add(next);
+          next.queued.decrement();
+          acquire(next);
+          skipped = 0;
+        } else {
+          skipped++;
+        }
+        if (!next.waiting.isEmpty()) {
+          turns.add(next);
+        }
+      }
+    }
+    for (int i = 0; i < tasks.size(); i++) {
+      start(taskQueues.get(i), tasks.get(i));
+    }
+  }
+
+  private void acquire(TenantQueue tenantQueue) {
+    running++;
+    tenantQueue.running++;
+    tenantQueue.runningGauge.increment();
+  }
+
+  private void start(TenantQueue tenantQueue, Task task) {
+    if (task.context != null && task.context != Vertx.currentContext()) {
+      task.context.runOnContext(v -> execute(tenantQueue, task));
+    } else {
+      execute(tenantQueue, task);
+    }
+  }
+
+  private void execute(TenantQueue tenantQueue, Task task) {
+    tenantQueue.queueWait.observe(System.nanoTime() - task.scheduledAt);
+    Future<Object> future;
+    try {
+      future = task.operation.get();
+    } catch (Exception e) {
+      future = Future.failedFuture(e);
+    }
+    future.setHandler(ar -> {
+      release(tenantQueue);
+      task.result.handle(ar);
+    });
+  }
+
+  private final class TenantQueue {
+    private final int limit;
+    private final Deque<Task> waiting = new ArrayDeque<>();
+    private final Histogram queueWait;
+    private final LongAdder queued;
+    private final LongAdder runningGauge;
+    private int running;
+
+    private TenantQueue(String tenantId) {
+      this.limit = Integer.getInteger(TENANT_MAX_CONCURRENCY_PROPERTY + "." + tenantId, tenantMaxConcurrency);
+      MetricsRegistry registry = MetricsRegistry.getInstance();
+      this.queueWait = registry.histogram("dao_scheduler_queue_wait_seconds",
+        "Time database round trips of DAOs waited for a free slot", "tenant", tenantId);
+      this.queued = registry.gauge("dao_scheduler_queued_operations", "Database round trips of DAOs waiting for a free slot", "tenant", tenantId);
+      this.runningGauge = registry.gauge("dao_scheduler_running_operations", "Running database round trips of DAOs", "tenant", tenantId);
+    }
+  }
+
+  private static final class Task {
+    private final Supplier<Future<Object>> operation;
+    private final Context context;
+    private final Future<Object> result = Future.future();
+    private final long scheduledAt = System.nanoTime();
+
+    private Task(Supplier<Future<Object>> operation, Context context) {
+      this.operation = operation;
+      this.context = context;
+    }
+  }
+}
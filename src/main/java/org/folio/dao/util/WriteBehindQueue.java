@@ -0,0 +1,147 @@
+package org.folio.dao.util;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.folio.dao.ForeignKeyViolationException;
+import org.folio.rest.jaxrs.model.BatchItemResult;
+import org.folio.rest.jaxrs.model.BatchResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.folio.dao.AbstractEntityDao.REFERENCE_NOT_FOUND_MESSAGE;
+
+/**
+ * Coalesces single record saves of a table into batches. Batch is saved when it reaches
+ * {@code dao.writeBehind.maxBatchSize} records or {@code dao.writeBehind.maxDelay.ms} milliseconds after
+ * its first record was queued, whichever comes first. Every caller gets the outcome of its own record.
+ * A record the batch could not save for another reason than a missing reference is saved again on its own
+ * by the direct save, so the caller gets the same failure as without write-behind, e.g. the database error
+ * of a duplicate id.
+ * Write-behind is enabled per table by listing tables in {@code dao.writeBehind.tables}, e.g. "persons,details".
+ *
+ * @param <T> entity type
+ */
+public class WriteBehindQueue<T> {
+
+  public static final String TABLES_PROPERTY = "dao.writeBehind.tables";
+  public static final String MAX_BATCH_SIZE_PROPERTY = "dao.writeBehind.maxBatchSize";
+  public static final String MAX_DELAY_PROPERTY = "dao.writeBehind.maxDelay.ms";
+
+  private static final int DEFAULT_MAX_BATCH_SIZE = 500;
+  private static final long DEFAULT_MAX_DELAY_MS = 10;
+  private static final long NO_TIMER = -1;
+
+  private final Vertx vertx;
+  private final Function<List<T>, Future<BatchResult>> batchSaver;
+  private final Function<T, Future<String>> saver;
+  private final int maxBatchSize;
+  private final long maxDelayMillis;
+  private List<T> entities = new ArrayList<>();
+  private List<Future<String>> futures = new ArrayList<>();
+  private long timerId = NO_TIMER;
+
+  public WriteBehindQueue(Vertx vertx, Function<List<T>, Future<BatchResult>> batchSaver, Function<T, Future<String>> saver,
+                          int maxBatchSize, long maxDelayMillis) {
+    this.vertx = vertx;
+    this.batchSaver = batchSaver;
+    this.saver = saver;
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayMillis = maxDelayMillis;
+  }
+
+  /**
+   * Creates queue for the table if write-behind is enabled for it.
+   *
+   * @return queue or null if write-behind is disabled for the table
+   */
+  public static <T> WriteBehindQueue<T> forTable(Vertx vertx, String table, Function<List<T>, Future<BatchResult>> batchSaver,
+                                                 Function<T, Future<String>> saver) {
+    boolean enabled = Arrays.stream(System.getProperty(TABLES_PROPERTY, "").split(","))
+      .map(String::trim)
+      .anyMatch(table::equals);
+    if (!enabled) {
+      return null;
+    }
+    return new WriteBehindQueue<>(vertx, batchSaver, saver,
+      Integer.getInteger(MAX_BATCH_SIZE_PROPERTY, DEFAULT_MAX_BATCH_SIZE),
+      Long.getLong(MAX_DELAY_PROPERTY, DEFAULT_MAX_DELAY_MS));
+  }
+
+  /**
+   * Queues entity to be saved with the next batch.
+   *
+   * @return future with id of the saved entity, fails with {@link ForeignKeyViolationException}
+   * if entity references a non-existing record or with the failure of the direct save otherwise
+   */
+  public Future<String> save(T entity) {
+    Future<String> future = Future.future();
+    List<T> batch = null;
+    List<Future<String>> batchFutures = null;
+    synchronized (this) {
+      entities.add(entity);
+      futures.add(future);
+      if (entities.size() >= maxBatchSize) {
+        if (timerId != NO_TIMER) {
+          vertx.cancelTimer(timerId);
+          timerId = NO_TIMER;
+        }
+        batch = entities;
+        batchFutures = futures;
+        entities = new ArrayList<>();
+        futures = new ArrayList<>();
+      } else if (timerId == NO_TIMER) {
+        timerId = vertx.setTimer(maxDelayMillis, this::onTimer);
+      }
+    }
+    if (batch != null) {
+      flush(batch, batchFutures);
+    }
+    return future;
+  }
+
+  private void onTimer(long firedTimerId) {
+    List<T> batch;
+    List<Future<String>> batchFutures;
+    synchronized (this) {
+      if (timerId != firedTimerId) {
+        return;
+      }
+      timerId = NO_TIMER;
+      batch = entities;
+      batchFutures = futures;
+      entities = new ArrayList<>();
+      futures = new ArrayList<>();
+    }
+    flush(batch, batchFutures);
+  }
+
+  private void flush(List<T> batch, List<Future<String>> batchFutures) {
+    try {
+      batchSaver.apply(batch).setHandler(ar -> complete(batch, batchFutures, ar));
+    } catch (Exception e) {
+      batchFutures.forEach(future -> future.fail(e));
+    }
+  }
+
+  private void complete(List<T> batch, List<Future<String>> batchFutures, AsyncResult<BatchResult> ar) {
+    if (ar.failed()) {
+      batchFutures.forEach(future -> future.fail(ar.cause()));
+      return;
+    }
+    List<BatchItemResult> items = ar.result().getItems();
+    for (int i = 0; i < batchFutures.size(); i++) {
+      BatchItemResult item = items.get(i);
+      if (item.getStatus() == BatchItemResult.Status.CREATED) {
+        batchFutures.get(i).complete(item.getId());
+      } else if (REFERENCE_NOT_FOUND_MESSAGE.equals(item.getMessage())) {
+        batchFutures.get(i).fail(new ForeignKeyViolationException(item.getMessage()));
+      } else {
+        saver.apply(batch.get(i)).setHandler(batchFutures.get(i).completer());
+      }
+    }
+  }
+}
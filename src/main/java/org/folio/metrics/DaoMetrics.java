@@ -0,0 +1,96 @@
+package org.folio.metrics;
+
+import io.vertx.core.Future;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latency and failures of asynchronous DAO methods, is installed as a dynamic proxy
+ * of the DAO interface so DAO implementations stay free of instrumentation code.
+ */
+public final class DaoMetrics implements InvocationHandler {
+
+  private final Object dao;
+  private final Map<Method, Histogram> latencies;
+  private final Map<Method, LongAdder> failures;
+
+  private DaoMetrics(Object dao, Map<Method, Histogram> latencies, Map<Method, LongAdder> failures) {
+    this.dao = dao;
+    this.latencies = latencies;
+    this.failures = failures;
+  }
+
+  /**
+   * Wraps DAO into a proxy measuring every method of the DAO interface that returns a future.
+   *
+   * @param daoInterface DAO interface declaring TABLE constant
+   * @param dao          DAO to measure
+   * @param tenantId     tenant id the DAO works for
+   * @return measured DAO
+   */
+  public static <D> D measure(Class<D> daoInterface, D dao, String tenantId) {
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    String table = getTable(daoInterface);
+    Map<Method, Histogram> latencies = new HashMap<>();
+    Map<Method, LongAdder> failures = new HashMap<>();
+    for (Method method : daoInterface.getMethods()) {
+      if (Future.class.isAssignableFrom(method.getReturnType())) {
+        latencies.put(method, registry.histogram("dao_method_duration_seconds", "Duration of DAO method calls",
+          "tenant", tenantId, "table", table, "method", method.getName()));
+        failures.put(method, registry.counter("dao_method_failures_total", "Failed DAO method calls",
+          "tenant", tenantId, "table", table, "method", method.getName()));
+      }
+    }
+    return daoInterface.cast(Proxy.newProxyInstance(daoInterface.getClassLoader(), new Class<?>[]{daoInterface},
+      new DaoMetrics(dao, latencies, failures)));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    Histogram latency = latencies.get(method);
+    if (latency == null) {
+      return invokeDao(method, args);
+    }
+    long start = System.nanoTime();
+    Future<Object> result;
+    try {
+      result = (Future<Object>) invokeDao(method, args);
+    } catch (Throwable e) {
+      latency.observe(System.nanoTime() - start);
+      failures.get(method).increment();
+      throw e;
+    }
+    Future<Object> measured = Future.future();
+    result.setHandler(ar -> {
+      latency.observe(System.nanoTime() - start);
+      if (ar.failed()) {
+        failures.get(method).increment();
+      }
+      measured.handle(ar);
+    });
+    return measured;
+  }
+
+  private Object invokeDao(Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(dao, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static String getTable(Class<?> daoInterface) {
+    try {
+      return String.valueOf(daoInterface.getField("TABLE").get(null));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException(daoInterface.getName() + " does not declare TABLE", e);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package org.folio.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed buckets. Observations only increment striped counters,
+ * so concurrent recording does not contend on a shared lock or atomic.
+ */
+public class Histogram {
+
+  private static final double[] BUCKET_BOUNDS_SECONDS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+  private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS_SECONDS.length];
+
+  static {
+    for (int i = 0; i < BUCKET_BOUNDS_SECONDS.length; i++) {
+      BUCKET_BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS_SECONDS[i] * TimeUnit.SECONDS.toNanos(1));
+    }
+  }
+
+  private final LongAdder[] bucketCounts = new LongAdder[BUCKET_BOUNDS_NANOS.length + 1];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sumNanos = new LongAdder();
+
+  Histogram() {
+    for (int i = 0; i < bucketCounts.length; i++) {
+      bucketCounts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * @param nanos observed duration in nanoseconds
+   */
+  public void observe(long nanos) {
+    int bucket = 0;
+    while (bucket < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[bucket]) {
+      bucket++;
+    }
+    bucketCounts[bucket].increment();
+    count.increment();
+    sumNanos.add(nanos);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Appends histogram series in Prometheus text format.
+   *
+   * @param name   metric name
+   * @param labels rendered labels of the series, empty if series has no labels
+   */
+  void appendTo(StringBuilder text, String name, String labels) {
+    String labelsPrefix = labels.isEmpty() ? "" : labels + ",";
+    long cumulativeCount = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      cumulativeCount += bucketCounts[i].sum();
+      String bound = i < BUCKET_BOUNDS_SECONDS.length ? Double.toString(BUCKET_BOUNDS_SECONDS[i]) : "+Inf";
+      text.append(name).append("_bucket{").append(labelsPrefix).append("le=\"").append(bound).append("\"} ")
+        .append(cumulativeCount).append('\n');
+    }
+    String series = labels.isEmpty() ? "" : "{" + labels + "}";
+    text.append(name).append("_sum").append(series).append(' ')
+      .append(sumNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1)).append('\n');
+    text.append(name).append("_count").append(series).append(' ').append(cumulativeCount).append('\n');
+  }
+}
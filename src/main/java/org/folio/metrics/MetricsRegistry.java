@@ -0,0 +1,147 @@
+package org.folio.metrics;
+
+import org.folio.dao.cache.EntityCache;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Process-wide registry of counters, gauges and latency histograms rendered in Prometheus text format.
+ * Series are identified by metric name and label name/value pairs, callers on hot paths are expected
+ * to keep the returned series instead of looking them up on every observation.
+ * Recording is disabled with {@code -Dmetrics.enabled=false}.
+ */
+public class MetricsRegistry {
+
+  public static final String ENABLED_PROPERTY = "metrics.enabled";
+
+  private static final MetricsRegistry INSTANCE =
+    new MetricsRegistry(Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")));
+
+  private final boolean enabled;
+  private final Map<String, MetricFamily<?>> families = new ConcurrentHashMap<>();
+
+  MetricsRegistry(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public static MetricsRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @param labels label names and values in turn: name1, value1, name2, value2...
+   * @return histogram series, is created on first access
+   */
+  public Histogram histogram(String name, String help, String... labels) {
+    return getFamily(name, help, "histogram", Histogram.class).getSeries(labels, l -> new Histogram());
+  }
+
+  /**
+   * @param labels label names and values in turn: name1, value1, name2, value2...
+   * @return monotonically increasing counter series, is created on first access
+   */
+  public LongAdder counter(String name, String help, String... labels) {
+    return getFamily(name, help, "counter", LongAdder.class).getSeries(labels, l -> new LongAdder());
+  }
+
+  /**
+   * @param labels label names and values in turn: name1, value1, name2, value2...
+   * @return gauge series that is incremented and decremented, is created on first access
+   */
+  public LongAdder gauge(String name, String help, String... labels) {
+    return getFamily(name, help, "gauge", LongAdder.class).getSeries(labels, l -> new LongAdder());
+  }
+
+  /**
+   * @return all metrics in Prometheus text exposition format
+   */
+  public String scrape() {
+    StringBuilder text = new StringBuilder();
+    new TreeMap<>(families).values().forEach(family -> family.appendTo(text));
+    appendCacheMetrics(text);
+    return text.toString();
+  }
+
+  private void appendCacheMetrics(StringBuilder text) {
+    Map<String, EntityCache> caches = new TreeMap<>(EntityCache.getInstances());
+    appendCacheMetric(text, caches, "entity_cache_hits_total", "Entity cache hits", "counter", EntityCache::getHits);
+    appendCacheMetric(text, caches, "entity_cache_misses_total", "Entity cache misses", "counter", EntityCache::getMisses);
+    appendCacheMetric(text, caches, "entity_cache_evictions_total", "Entity cache evictions", "counter", EntityCache::getEvictions);
+    appendCacheMetric(text, caches, "entity_cache_size", "Number of cached records", "gauge", EntityCache::size);
+  }
+
+  private void appendCacheMetric(StringBuilder text, Map<String, EntityCache> caches, String name, String help,
+                                 String type, ToLongFunction<EntityCache> value) {
+    appendHeader(text, name, help, type);
+    caches.forEach((tenantId, cache) -> text.append(name).append('{').append(renderLabels("tenant", tenantId)).append("} ")
+      .append(value.applyAsLong(cache)).append('\n'));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <M> MetricFamily<M> getFamily(String name, String help, String type, Class<M> seriesClass) {
+    MetricFamily<?> family = families.computeIfAbsent(name, n -> new MetricFamily<>(name, help, type));
+    if (!family.type.equals(type)) {
+      throw new IllegalArgumentException(String.format("Metric '%s' is already registered as %s", name, family.type));
+    }
+    return (MetricFamily<M>) family;
+  }
+
+  private static void appendHeader(StringBuilder text, String name, String help, String type) {
+    text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  static String renderLabels(String... labels) {
+    if (labels.length % 2 != 0) {
+      throw new IllegalArgumentException("Labels must be name and value pairs");
+    }
+    StringBuilder rendered = new StringBuilder();
+    for (int i = 0; i < labels.length; i += 2) {
+      if (i > 0) {
+        rendered.append(',');
+      }
+      rendered.append(labels[i]).append("=\"")
+        .append(String.valueOf(labels[i + 1]).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+        .append('"');
+    }
+    return rendered.toString();
+  }
+
+  private static final class MetricFamily<M> {
+    private final String name;
+    private final String help;
+    private final String type;
+    private final Map<String, M> series = new ConcurrentHashMap<>();
+
+    MetricFamily(String name, String help, String type) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+    }
+
+    M getSeries(String[] labels, Function<String, M> factory) {
+      return series.computeIfAbsent(renderLabels(labels), factory);
+    }
+
+    void appendTo(StringBuilder text) {
+      appendHeader(text, name, help, type);
+      new TreeMap<>(series).forEach((labels, metric) -> {
+        if (metric instanceof Histogram) {
+          ((Histogram) metric).appendTo(text, name, labels);
+        } else {
+          text.append(name).append(labels.isEmpty() ? "" : "{" + labels + "}").append(' ')
+            .append(((LongAdder) metric).sum()).append('\n');
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.folio.metrics;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+import javax.ws.rs.core.Response;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latency, status codes and in-flight count of REST endpoint calls.
+ * Series of an endpoint are looked up in the registry once and kept by its metrics.
+ */
+public final class RequestMetrics {
+
+  private static final int INTERNAL_SERVER_ERROR = 500;
+  private static final int UNPROCESSABLE_ENTITY = 422;
+  private static final int MAX_STATUS = 599;
+  private static final Map<String, Map<String, RequestMetrics>> METRICS = new ConcurrentHashMap<>();
+
+  private final MetricsRegistry registry;
+  private final String tenantId;
+  private final String endpoint;
+  private final Histogram latency;
+  private final LongAdder inFlight;
+  private final LongAdder foreignKeyViolations;
+  private final AtomicReferenceArray<LongAdder> requestsByStatus = new AtomicReferenceArray<>(MAX_STATUS + 1);
+
+  private RequestMetrics(MetricsRegistry registry, String tenantId, String endpoint) {
+    this.registry = registry;
+    this.tenantId = tenantId;
+    this.endpoint = endpoint;
+    this.latency = registry.histogram("http_request_duration_seconds", "Duration of REST endpoint calls",
+      "tenant", tenantId, "endpoint", endpoint);
+    this.inFlight = registry.gauge("http_requests_in_flight", "REST endpoint calls being handled", "tenant", tenantId);
+    this.foreignKeyViolations = registry.counter("http_foreign_key_violations_total",
+      "REST endpoint calls rejected because of foreign key violations", "tenant", tenantId, "endpoint", endpoint);
+  }
+
+  /**
+   * Starts measuring the call, the call is complete when the returned handler receives the response.
+   *
+   * @param tenantId        tenant id of the request
+   * @param endpoint        endpoint name
+   * @param responseHandler handler of the endpoint response
+   * @return handler recording the call and passing the response to the given handler
+   */
+  public static Handler<AsyncResult<Response>> measure(String tenantId, String endpoint,
+                                                       Handler<AsyncResult<Response>> responseHandler) {
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    if (!registry.isEnabled()) {
+      return responseHandler;
+    }
+    RequestMetrics metrics = getMetrics(registry, tenantId, endpoint);
+    long start = System.nanoTime();
+    metrics.inFlight.increment();
+    return ar -> {
+      metrics.latency.observe(System.nanoTime() - start);
+      metrics.inFlight.decrement();
+      int status = ar.succeeded() ? ar.result().getStatus() : INTERNAL_SERVER_ERROR;
+      metrics.requestsWithStatus(status).increment();
+      if (status == UNPROCESSABLE_ENTITY) {
+        metrics.foreignKeyViolations.increment();
+      }
+      responseHandler.handle(ar);
+    };
+  }
+
+  private static RequestMetrics getMetrics(MetricsRegistry registry, String tenantId, String endpoint) {
+    Map<String, RequestMetrics> tenantMetrics = METRICS.get(tenantId);
+    if (tenantMetrics == null) {
+      tenantMetrics = METRICS.computeIfAbsent(tenantId, t -> new ConcurrentHashMap<>());
+    }
+    RequestMetrics metrics = tenantMetrics.get(endpoint);
+    if (metrics == null) {
+      metrics = tenantMetrics.computeIfAbsent(endpoint, e -> new RequestMetrics(registry, tenantId, endpoint));
+    }
+    return metrics;
+  }
+
+  private LongAdder requestsWithStatus(int status) {
+    if (status < 0 || status > MAX_STATUS) {
+      return lookUpRequestsWithStatus(status);
+    }
+    LongAdder requests = requestsByStatus.get(status);
+    if (requests == null) {
+      // registry returns the same series to concurrent lookups
+      requests = lookUpRequestsWithStatus(status);
+      requestsByStatus.set(status, requests);
+    }
+    return requests;
+  }
+
+  private LongAdder lookUpRequestsWithStatus(int status) {
+    return registry.counter("http_requests_total", "REST endpoint calls by response status",
+      "tenant", tenantId, "endpoint", endpoint, "status", String.valueOf(status));
+  }
+}
@@ -0,0 +1,113 @@
+package org.folio.rest.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import org.folio.dao.DaoRegistry;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.resource.interfaces.InitAPI;
+
+import javax.ws.rs.BadRequestException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Serves streaming exports of whole tables as newline delimited JSON, {@code GET /resource/<entity>/export}
+ * with optional {@code after} and {@code limit} query parameters and the tenant in {@code X-Okapi-Tenant}.
+ * RMB buffers the whole response of a RAML endpoint, so exports are served by a plain Vert.x route on their own
+ * HTTP server and written straight to the response, fetching the next page only once the response has drained.
+ * The server listens on {@code export.http.port} taken from the verticle config or the system properties,
+ * and is not started if the port is not set.
+ */
+public class ExportAPI implements InitAPI {
+
+  public static final String PORT_PROPERTY = "export.http.port";
+
+  private static final String NDJSON = "application/x-ndjson";
+  private static final String TEXT_PLAIN = "text/plain";
+  private static final Map<String, Function<DaoRegistry, TableExport>> EXPORTS = new HashMap<>();
+
+  static {
+    EXPORTS.put("employee", registry -> registry.getEmployeeDao()::export);
+    EXPORTS.put("location", registry -> registry.getLocationDao()::export);
+    EXPORTS.put("ticket", registry -> registry.getTicketDao()::export);
+    EXPORTS.put("airPlane", registry -> registry.getAirPlaneDao()::export);
+    EXPORTS.put("detail", registry -> registry.getDetailDao()::export);
+    EXPORTS.put("passport", registry -> registry.getPassportDao()::export);
+    EXPORTS.put("person", registry -> registry.getPersonDao()::export);
+  }
+
+  @Override
+  public void init(Vertx vertx, Context context, Handler<AsyncResult<Boolean>> resultHandler) {
+    Integer port = context.config().getInteger(PORT_PROPERTY, Integer.getInteger(PORT_PROPERTY));
+    if (port == null) {
+      resultHandler.handle(Future.succeededFuture(true));
+      return;
+    }
+    Router router = Router.router(vertx);
+    router.get("/resource/:entity/export").handler(ExportAPI::export);
+    vertx.createHttpServer()
+      .requestHandler(router::accept)
+      .listen(port, ar -> resultHandler.handle(ar.succeeded() ? Future.succeededFuture(true) : Future.failedFuture(ar.cause())));
+  }
+
+  private static void export(RoutingContext routingContext) {
+    HttpServerRequest request = routingContext.request();
+    HttpServerResponse response = routingContext.response();
+    Function<DaoRegistry, TableExport> tableExport = EXPORTS.get(request.getParam("entity"));
+    if (tableExport == null) {
+      endWithError(response, 404, "Entity not found");
+      return;
+    }
+    String tenantId = request.getHeader(RestVerticle.OKAPI_HEADER_TENANT);
+    if (tenantId == null) {
+      endWithError(response, 400, "Header " + RestVerticle.OKAPI_HEADER_TENANT + " is missing");
+      return;
+    }
+    int limit;
+    try {
+      String limitParam = request.getParam("limit");
+      limit = limitParam == null ? Integer.MAX_VALUE : Integer.parseInt(limitParam);
+    } catch (NumberFormatException e) {
+      limit = 0;
+    }
+    if (limit < 1) {
+      endWithError(response, 400, "Parameter 'limit' must be a positive integer");
+      return;
+    }
+    response.setChunked(true).putHeader(HttpHeaders.CONTENT_TYPE, NDJSON);
+    tableExport.apply(DaoRegistry.getInstance(routingContext.vertx(), tenantId))
+      .export(response, request.getParam("after"), limit)
+      .setHandler(ar -> {
+        if (ar.succeeded()) {
+          response.end();
+        } else if (!response.headWritten()) {
+          endWithError(response, ar.cause() instanceof BadRequestException ? 400 : 500, ar.cause().getMessage());
+        } else {
+          // records were sent with 200 already, closing without the last chunk tells the client the export is incomplete
+          response.close();
+        }
+      });
+  }
+
+  private static void endWithError(HttpServerResponse response, int status, String message) {
+    response.setStatusCode(status)
+      .putHeader(HttpHeaders.CONTENT_TYPE, TEXT_PLAIN)
+      .end(message == null ? "Internal server error" : message);
+  }
+
+  @FunctionalInterface
+  private interface TableExport {
+    Future<Integer> export(WriteStream<Buffer> stream, String afterId, int maxRecords);
+  }
+}
@@ -0,0 +1,25 @@
+package org.folio.rest.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import org.folio.dataimport.util.ExceptionHelper;
+import org.folio.metrics.MetricsRegistry;
+import org.folio.rest.jaxrs.resource.Metrics;
+
+import javax.ws.rs.core.Response;
+import java.util.Map;
+
+public class MetricsImpl implements Metrics {
+
+  @Override
+  public void getMetrics(Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    try {
+      asyncResultHandler.handle(Future.succeededFuture(
+        GetMetricsResponse.respond200WithTextPlain(MetricsRegistry.getInstance().scrape())));
+    } catch (Exception e) {
+      asyncResultHandler.handle(Future.succeededFuture(ExceptionHelper.mapExceptionToResponse(e)));
+    }
+  }
+}
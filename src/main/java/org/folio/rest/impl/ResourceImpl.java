@@ -1,214 +1,604 @@
 package org.folio.rest.impl;
 
 import io.vertx.core.*;
-import org.folio.dao.many2many.EmployeeDao;
-import org.folio.dao.many2many.LocationDao;
-import org.folio.dao.many2many.TicketDao;
-import org.folio.dao.many2many.impl.EmployeeDaoImpl;
-import org.folio.dao.many2many.impl.LocationDaoImpl;
-import org.folio.dao.many2many.impl.TicketDaoImpl;
-import org.folio.dao.one2many.AirPlaneDao;
-import org.folio.dao.one2many.DetailDao;
-import org.folio.dao.one2many.impl.AirPlaneDaoImpl;
-import org.folio.dao.one2many.impl.DetailDaoImpl;
-import org.folio.dao.one2one.PassportDao;
-import org.folio.dao.one2one.PersonDao;
-import org.folio.dao.one2one.impl.PassportDaoImpl;
-import org.folio.dao.one2one.impl.PersonDaoImpl;
+import org.folio.dao.DaoRegistry;
+import org.folio.dao.ForeignKeyViolationException;
 import org.folio.dataimport.util.ExceptionHelper;
+import org.folio.metrics.RequestMetrics;
 import org.folio.rest.jaxrs.model.*;
 import org.folio.rest.jaxrs.resource.Resource;
 import org.folio.rest.tools.utils.TenantTool;
+import org.folio.services.ImportService;
+import org.folio.services.impl.ImportServiceImpl;
 
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public class ResourceImpl implements Resource {
 
-  private EmployeeDao employeeDao;
-  private LocationDao locationDao;
-  private TicketDao ticketDao;
-  private AirPlaneDao airPlaneDao;
-  private DetailDao detailDao;
-  private PassportDao passportDao;
-  private PersonDao personDao;
+  private static final String EXPAND_DETAILS = "details";
+  private static final String EXPAND_EMPLOYEE = "employee";
+  private static final String EXPAND_LOCATION = "location";
+  private static final int UNPROCESSABLE_ENTITY = 422;
+
+  private String tenantId;
+  private DaoRegistry daoRegistry;
+  private ImportService importService;
 
   public ResourceImpl(Vertx vertx, String tenantId) {
-    String calculatedTenantId = TenantTool.calculateTenantId(tenantId);
-    this.employeeDao = new EmployeeDaoImpl(vertx, calculatedTenantId);
-    this.locationDao = new LocationDaoImpl(vertx, calculatedTenantId);
-    this.ticketDao = new TicketDaoImpl(vertx, calculatedTenantId);
-    this.airPlaneDao = new AirPlaneDaoImpl(vertx, calculatedTenantId);
-    this.detailDao = new DetailDaoImpl(vertx, calculatedTenantId);
-    this.passportDao = new PassportDaoImpl(vertx, calculatedTenantId);
-    this.personDao = new PersonDaoImpl(vertx, calculatedTenantId);
+    this.tenantId = TenantTool.calculateTenantId(tenantId);
+    this.daoRegistry = DaoRegistry.getInstance(vertx, tenantId);
+    this.importService = new ImportServiceImpl(daoRegistry);
+  }
+
+  @Override
+  public void postResourceImport(InputStream entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceImport", asyncResultHandler, () -> importService.importRecords(entity)
+      .map(importResult -> (Response) PostResourceImportResponse.respond200WithApplicationJson(importResult)));
+  }
+
+  @Override
+  public void getResourceStatsAirPlaneDetailsById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceStatsAirPlaneDetailsById", asyncResultHandler, () -> daoRegistry.getDetailDao().countByAirPlaneId(id)
+      .map(count -> (Response) GetResourceStatsAirPlaneDetailsByIdResponse.respond200WithApplicationJson(toReferenceCount(id, count))));
+  }
+
+  @Override
+  public void getResourceStatsEmployeeTicketsById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceStatsEmployeeTicketsById", asyncResultHandler, () -> daoRegistry.getTicketDao().countByEmployeeId(id)
+      .map(count -> (Response) GetResourceStatsEmployeeTicketsByIdResponse.respond200WithApplicationJson(toReferenceCount(id, count))));
+  }
+
+  @Override
+  public void getResourceStatsLocationTicketsById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceStatsLocationTicketsById", asyncResultHandler, () -> daoRegistry.getTicketDao().countByLocationId(id)
+      .map(count -> (Response) GetResourceStatsLocationTicketsByIdResponse.respond200WithApplicationJson(toReferenceCount(id, count))));
   }
 
   @Override
   public void postResourceEmployee(Employee entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    vertxContext.runOnContext(v -> {
-      try {
-        employeeDao.save(entity)
-          .map((Response) PostResourceEmployeeResponse
-            .respond201WithApplicationJson(entity))
-          .otherwise(ExceptionHelper::mapExceptionToResponse)
-          .setHandler(asyncResultHandler);
-      } catch (Exception e) {
-        asyncResultHandler.handle(Future.succeededFuture(ExceptionHelper.mapExceptionToResponse(e)));
+    handle("postResourceEmployee", asyncResultHandler, () -> daoRegistry.getEmployeeDao().save(entity)
+      .map(id -> (Response) PostResourceEmployeeResponse.respond201WithApplicationJson(entity)));
+  }
+
+  @Override
+  public void getResourceEmployee(String after, int limit, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceEmployee", asyncResultHandler, () -> daoRegistry.getEmployeeDao().getPage(after, limit)
+      .map(employees -> (Response) GetResourceEmployeeResponse.respond200WithApplicationJson(new EmployeeCollection()
+        .withEmployees(employees)
+        .withTotalRecords(employees.size()))));
+  }
+
+  @Override
+  public void getResourceEmployeeById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceEmployeeById", asyncResultHandler, () -> daoRegistry.getEmployeeDao().getById(id)
+      .map(employee -> (Response) (employee.isPresent() ? GetResourceEmployeeByIdResponse.respond200WithApplicationJson(employee.get())
+        : GetResourceEmployeeByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void putResourceEmployeeById(String id, Employee entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceEmployeeById", asyncResultHandler, () -> {
+      if (entity.getId() != null && !entity.getId().equals(id)) {
+        throw new BadRequestException("Record id does not match id in the path");
       }
+      return daoRegistry.getEmployeeDao().upsert(entity.withId(id))
+        .map(savedId -> (Response) PutResourceEmployeeByIdResponse.respond204());
     });
   }
 
+  @Override
+  public void deleteResourceEmployeeById(String id, boolean cascade, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("deleteResourceEmployeeById", asyncResultHandler, () -> daoRegistry.getEmployeeDao().delete(id, cascade)
+      .map(deleted -> (Response) (deleted ? DeleteResourceEmployeeByIdResponse.respond204()
+        : DeleteResourceEmployeeByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void getResourceEmployeeLocationsById(String id, String after, int limit, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceEmployeeLocationsById", asyncResultHandler, () -> daoRegistry.getLocationDao().getByEmployeeId(id, after, limit)
+      .map(locations -> (Response) GetResourceEmployeeLocationsByIdResponse.respond200WithApplicationJson(new LocationCollection()
+        .withLocations(locations)
+        .withTotalRecords(locations.size()))));
+  }
+
+  @Override
+  public void postResourceEmployeeBatch(EmployeeCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceEmployeeBatch", asyncResultHandler, () -> daoRegistry.getEmployeeDao().saveBatch(entity.getEmployees())
+      .map(batchResult -> (Response) PostResourceEmployeeBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void putResourceEmployeeBatch(EmployeeCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceEmployeeBatch", asyncResultHandler, () -> daoRegistry.getEmployeeDao().upsertBatch(entity.getEmployees())
+      .map(batchResult -> (Response) PutResourceEmployeeBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void postResourceEmployeeMget(IdCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceEmployeeMget", asyncResultHandler, () -> daoRegistry.getEmployeeDao().getByIds(entity.getIds())
+      .map(results -> {
+        List<Employee> employees = found(results);
+        return (Response) PostResourceEmployeeMgetResponse.respond200WithApplicationJson(new EmployeeCollection()
+          .withEmployees(employees)
+          .withMissingIds(missingIds(entity.getIds(), results))
+          .withTotalRecords(employees.size()));
+      }));
+  }
+
   @Override
   public void postResourceLocation(Location entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    try {
-      locationDao.save(entity)
-        .map((Response) PostResourceLocationResponse
-          .respond201WithApplicationJson(entity))
-        .otherwise(ExceptionHelper::mapExceptionToResponse)
-        .setHandler(asyncResultHandler);
-    } catch (Exception e) {
-      asyncResultHandler.handle(Future.succeededFuture(ExceptionHelper.mapExceptionToResponse(e)));
-    }
+    handle("postResourceLocation", asyncResultHandler, () -> daoRegistry.getLocationDao().save(entity)
+      .map(id -> (Response) PostResourceLocationResponse.respond201WithApplicationJson(entity)));
+  }
+
+  @Override
+  public void getResourceLocation(String after, int limit, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceLocation", asyncResultHandler, () -> daoRegistry.getLocationDao().getPage(after, limit)
+      .map(locations -> (Response) GetResourceLocationResponse.respond200WithApplicationJson(new LocationCollection()
+        .withLocations(locations)
+        .withTotalRecords(locations.size()))));
+  }
+
+  @Override
+  public void getResourceLocationById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceLocationById", asyncResultHandler, () -> daoRegistry.getLocationDao().getById(id)
+      .map(location -> (Response) (location.isPresent() ? GetResourceLocationByIdResponse.respond200WithApplicationJson(location.get())
+        : GetResourceLocationByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void putResourceLocationById(String id, Location entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceLocationById", asyncResultHandler, () -> {
+      if (entity.getId() != null && !entity.getId().equals(id)) {
+        throw new BadRequestException("Record id does not match id in the path");
+      }
+      return daoRegistry.getLocationDao().upsert(entity.withId(id))
+        .map(savedId -> (Response) PutResourceLocationByIdResponse.respond204());
+    });
+  }
+
+  @Override
+  public void deleteResourceLocationById(String id, boolean cascade, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("deleteResourceLocationById", asyncResultHandler, () -> daoRegistry.getLocationDao().delete(id, cascade)
+      .map(deleted -> (Response) (deleted ? DeleteResourceLocationByIdResponse.respond204()
+        : DeleteResourceLocationByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void getResourceLocationEmployeesById(String id, String after, int limit, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceLocationEmployeesById", asyncResultHandler, () -> daoRegistry.getEmployeeDao().getByLocationId(id, after, limit)
+      .map(employees -> (Response) GetResourceLocationEmployeesByIdResponse.respond200WithApplicationJson(new EmployeeCollection()
+        .withEmployees(employees)
+        .withTotalRecords(employees.size()))));
+  }
+
+  @Override
+  public void postResourceLocationBatch(LocationCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceLocationBatch", asyncResultHandler, () -> daoRegistry.getLocationDao().saveBatch(entity.getLocations())
+      .map(batchResult -> (Response) PostResourceLocationBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void putResourceLocationBatch(LocationCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceLocationBatch", asyncResultHandler, () -> daoRegistry.getLocationDao().upsertBatch(entity.getLocations())
+      .map(batchResult -> (Response) PutResourceLocationBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void postResourceLocationMget(IdCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceLocationMget", asyncResultHandler, () -> daoRegistry.getLocationDao().getByIds(entity.getIds())
+      .map(results -> {
+        List<Location> locations = found(results);
+        return (Response) PostResourceLocationMgetResponse.respond200WithApplicationJson(new LocationCollection()
+          .withLocations(locations)
+          .withMissingIds(missingIds(entity.getIds(), results))
+          .withTotalRecords(locations.size()));
+      }));
   }
 
   @Override
   public void postResourceTicket(Ticket entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    try {
-      ticketDao.save(entity)
-        .map((Response) PostResourceTicketResponse
-          .respond201WithApplicationJson(entity))
-        .otherwise(ExceptionHelper::mapExceptionToResponse)
-        .setHandler(asyncResultHandler);
-    } catch (Exception e) {
-      asyncResultHandler.handle(Future.succeededFuture(ExceptionHelper.mapExceptionToResponse(e)));
-    }
+    handle("postResourceTicket", asyncResultHandler, () -> daoRegistry.getTicketDao().save(entity)
+      .map(id -> (Response) PostResourceTicketResponse.respond201WithApplicationJson(entity)));
+  }
+
+  @Override
+  public void getResourceTicket(String after, int limit, String employeeId, String locationId, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceTicket", asyncResultHandler, () -> daoRegistry.getTicketDao().getPage(after, limit, employeeId, locationId)
+      .map(tickets -> (Response) GetResourceTicketResponse.respond200WithApplicationJson(new TicketCollection()
+        .withTickets(tickets)
+        .withTotalRecords(tickets.size()))));
   }
 
   @Override
-  public void getResourceTicketById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    vertxContext.runOnContext(c -> {
-      try {
-        ticketDao.getById(id)
-          .map(ar -> (Response) GetResourceTicketByIdResponse.respond200WithApplicationJson(ar.get()))
-          .otherwise(ExceptionHelper::mapExceptionToResponse)
-          .setHandler(asyncResultHandler);
-      } catch (Exception e) {
-        asyncResultHandler.handle(Future.succeededFuture(
-          ExceptionHelper.mapExceptionToResponse(e)));
+  public void getResourceTicketById(String id, String expand, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceTicketById", asyncResultHandler, () -> {
+      Set<String> relationships = parseExpand(expand);
+      Future<Optional<Ticket>> ticketFuture = relationships.isEmpty()
+        ? daoRegistry.getTicketDao().getById(id)
+        : daoRegistry.getTicketDao().getByIdExpanded(id, relationships.contains(EXPAND_EMPLOYEE), relationships.contains(EXPAND_LOCATION));
+      return ticketFuture
+        .map(ticket -> (Response) (ticket.isPresent() ? GetResourceTicketByIdResponse.respond200WithApplicationJson(ticket.get())
+          : GetResourceTicketByIdResponse.respond404WithTextPlain("Record not found")));
+    });
+  }
+
+  @Override
+  public void putResourceTicketById(String id, Ticket entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceTicketById", asyncResultHandler, () -> {
+      if (entity.getId() != null && !entity.getId().equals(id)) {
+        throw new BadRequestException("Record id does not match id in the path");
       }
+      return daoRegistry.getTicketDao().upsert(entity.withId(id))
+        .map(savedId -> (Response) PutResourceTicketByIdResponse.respond204());
     });
   }
 
+  @Override
+  public void deleteResourceTicketById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("deleteResourceTicketById", asyncResultHandler, () -> daoRegistry.getTicketDao().delete(id)
+      .map(deleted -> (Response) (deleted ? DeleteResourceTicketByIdResponse.respond204()
+        : DeleteResourceTicketByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void postResourceTicketBatch(TicketCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceTicketBatch", asyncResultHandler, () -> daoRegistry.getTicketDao().saveBatch(entity.getTickets())
+      .map(batchResult -> (Response) PostResourceTicketBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void putResourceTicketBatch(TicketCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceTicketBatch", asyncResultHandler, () -> daoRegistry.getTicketDao().upsertBatch(entity.getTickets())
+      .map(batchResult -> (Response) PutResourceTicketBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void postResourceTicketMget(IdCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceTicketMget", asyncResultHandler, () -> daoRegistry.getTicketDao().getByIds(entity.getIds())
+      .map(results -> {
+        List<Ticket> tickets = found(results);
+        return (Response) PostResourceTicketMgetResponse.respond200WithApplicationJson(new TicketCollection()
+          .withTickets(tickets)
+          .withMissingIds(missingIds(entity.getIds(), results))
+          .withTotalRecords(tickets.size()));
+      }));
+  }
+
   @Override
   public void postResourceDetail(Detail entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    try {
-      detailDao.save(entity)
-        .map(ar -> (Response) PostResourceDetailResponse.respond201WithApplicationJson(entity))
-        .otherwise(ExceptionHelper::mapExceptionToResponse)
-        .setHandler(asyncResultHandler);
-    } catch (Exception e) {
-      asyncResultHandler.handle(Future.succeededFuture(ExceptionHelper.mapExceptionToResponse(e)));
-    }
+    handle("postResourceDetail", asyncResultHandler, () -> daoRegistry.getDetailDao().save(entity)
+      .map(id -> (Response) PostResourceDetailResponse.respond201WithApplicationJson(entity)));
+  }
+
+  @Override
+  public void getResourceDetail(String after, int limit, String airPlaneId, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceDetail", asyncResultHandler, () -> daoRegistry.getDetailDao().getPage(after, limit, airPlaneId)
+      .map(details -> (Response) GetResourceDetailResponse.respond200WithApplicationJson(new DetailCollection()
+        .withDetails(details)
+        .withTotalRecords(details.size()))));
   }
 
   @Override
   public void getResourceDetailById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    vertxContext.runOnContext(c -> {
-      try {
-        detailDao.getById(id)
-          .map(ar -> (Response) GetResourceDetailByIdResponse.respond200WithApplicationJson(ar.get()))
-          .otherwise(ExceptionHelper::mapExceptionToResponse)
-          .setHandler(asyncResultHandler);
-      } catch (Exception e) {
-        asyncResultHandler.handle(Future.succeededFuture(
-          ExceptionHelper.mapExceptionToResponse(e)));
+    handle("getResourceDetailById", asyncResultHandler, () -> daoRegistry.getDetailDao().getById(id)
+      .map(detail -> (Response) (detail.isPresent() ? GetResourceDetailByIdResponse.respond200WithApplicationJson(detail.get())
+        : GetResourceDetailByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void putResourceDetailById(String id, Detail entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceDetailById", asyncResultHandler, () -> {
+      if (entity.getId() != null && !entity.getId().equals(id)) {
+        throw new BadRequestException("Record id does not match id in the path");
       }
+      return daoRegistry.getDetailDao().upsert(entity.withId(id))
+        .map(savedId -> (Response) PutResourceDetailByIdResponse.respond204());
     });
   }
 
+  @Override
+  public void deleteResourceDetailById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("deleteResourceDetailById", asyncResultHandler, () -> daoRegistry.getDetailDao().delete(id)
+      .map(deleted -> (Response) (deleted ? DeleteResourceDetailByIdResponse.respond204()
+        : DeleteResourceDetailByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void postResourceDetailBatch(DetailCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceDetailBatch", asyncResultHandler, () -> daoRegistry.getDetailDao().saveBatch(entity.getDetails())
+      .map(batchResult -> (Response) PostResourceDetailBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void putResourceDetailBatch(DetailCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceDetailBatch", asyncResultHandler, () -> daoRegistry.getDetailDao().upsertBatch(entity.getDetails())
+      .map(batchResult -> (Response) PutResourceDetailBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void postResourceDetailMget(IdCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceDetailMget", asyncResultHandler, () -> daoRegistry.getDetailDao().getByIds(entity.getIds())
+      .map(results -> {
+        List<Detail> details = found(results);
+        return (Response) PostResourceDetailMgetResponse.respond200WithApplicationJson(new DetailCollection()
+          .withDetails(details)
+          .withMissingIds(missingIds(entity.getIds(), results))
+          .withTotalRecords(details.size()));
+      }));
+  }
+
   @Override
   public void postResourceAirPlane(AirPlane entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    try {
-      airPlaneDao.save(entity)
-        .map(ar -> (Response) PostResourceAirPlaneResponse.respond201WithApplicationJson(entity))
-        .otherwise(ExceptionHelper::mapExceptionToResponse)
-        .setHandler(asyncResultHandler);
-    } catch (Exception e) {
-      asyncResultHandler.handle(Future.succeededFuture(ExceptionHelper.mapExceptionToResponse(e)));
-    }
+    handle("postResourceAirPlane", asyncResultHandler, () -> daoRegistry.getAirPlaneDao().save(entity)
+      .map(id -> (Response) PostResourceAirPlaneResponse.respond201WithApplicationJson(entity)));
   }
 
   @Override
-  public void getResourceAirPlaneById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    vertxContext.runOnContext(c -> {
-      try {
-        airPlaneDao.getById(id)
-          .map(ar -> (Response) GetResourceAirPlaneByIdResponse.respond200WithApplicationJson(ar.get()))
-          .otherwise(ExceptionHelper::mapExceptionToResponse)
-          .setHandler(asyncResultHandler);
-      } catch (Exception e) {
-        asyncResultHandler.handle(Future.succeededFuture(
-          ExceptionHelper.mapExceptionToResponse(e)));
-      }
+  public void getResourceAirPlane(String after, int limit, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceAirPlane", asyncResultHandler, () -> daoRegistry.getAirPlaneDao().getPage(after, limit)
+      .map(airPlanes -> (Response) GetResourceAirPlaneResponse.respond200WithApplicationJson(new AirPlaneCollection()
+        .withAirPlanes(airPlanes)
+        .withTotalRecords(airPlanes.size()))));
+  }
+
+  @Override
+  public void getResourceAirPlaneById(String id, String expand, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourceAirPlaneById", asyncResultHandler, () -> {
+      Future<Optional<AirPlane>> airPlaneFuture = parseExpand(expand).contains(EXPAND_DETAILS)
+        ? daoRegistry.getAirPlaneDao().getByIdWithDetails(id)
+        : daoRegistry.getAirPlaneDao().getById(id);
+      return airPlaneFuture
+        .map(airPlane -> (Response) (airPlane.isPresent() ? GetResourceAirPlaneByIdResponse.respond200WithApplicationJson(airPlane.get())
+          : GetResourceAirPlaneByIdResponse.respond404WithTextPlain("Record not found")));
     });
   }
 
   @Override
-  public void postResourcePassport(Passport entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    vertxContext.runOnContext(v -> {
-      try {
-        passportDao.save(entity)
-          .map(ar -> (Response) PostResourcePassportResponse.respond201WithApplicationJson(entity))
-          .otherwise(ExceptionHelper::mapExceptionToResponse)
-          .setHandler(asyncResultHandler);
-      } catch (Exception e) {
-        asyncResultHandler.handle(Future.succeededFuture(ExceptionHelper.mapExceptionToResponse(e)));
+  public void putResourceAirPlaneById(String id, AirPlane entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceAirPlaneById", asyncResultHandler, () -> {
+      if (entity.getId() != null && !entity.getId().equals(id)) {
+        throw new BadRequestException("Record id does not match id in the path");
       }
+      return daoRegistry.getAirPlaneDao().upsert(entity.withId(id))
+        .map(savedId -> (Response) PutResourceAirPlaneByIdResponse.respond204());
     });
   }
 
+  @Override
+  public void deleteResourceAirPlaneById(String id, boolean cascade, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("deleteResourceAirPlaneById", asyncResultHandler, () -> daoRegistry.getAirPlaneDao().delete(id, cascade)
+      .map(deleted -> (Response) (deleted ? DeleteResourceAirPlaneByIdResponse.respond204()
+        : DeleteResourceAirPlaneByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void postResourceAirPlaneGraph(AirPlaneGraph entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceAirPlaneGraph", asyncResultHandler, () -> daoRegistry.getAirPlaneDao().saveWithDetails(entity.getAirPlane(), entity.getDetails())
+      .map(id -> (Response) PostResourceAirPlaneGraphResponse.respond201WithApplicationJson(entity)));
+  }
+
+  @Override
+  public void postResourceAirPlaneBatch(AirPlaneCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceAirPlaneBatch", asyncResultHandler, () -> daoRegistry.getAirPlaneDao().saveBatch(entity.getAirPlanes())
+      .map(batchResult -> (Response) PostResourceAirPlaneBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void putResourceAirPlaneBatch(AirPlaneCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourceAirPlaneBatch", asyncResultHandler, () -> daoRegistry.getAirPlaneDao().upsertBatch(entity.getAirPlanes())
+      .map(batchResult -> (Response) PutResourceAirPlaneBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void postResourceAirPlaneMget(IdCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourceAirPlaneMget", asyncResultHandler, () -> daoRegistry.getAirPlaneDao().getByIds(entity.getIds())
+      .map(results -> {
+        List<AirPlane> airPlanes = found(results);
+        return (Response) PostResourceAirPlaneMgetResponse.respond200WithApplicationJson(new AirPlaneCollection()
+          .withAirPlanes(airPlanes)
+          .withMissingIds(missingIds(entity.getIds(), results))
+          .withTotalRecords(airPlanes.size()));
+      }));
+  }
+
+  @Override
+  public void postResourcePassport(Passport entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourcePassport", asyncResultHandler, () -> daoRegistry.getPassportDao().save(entity)
+      .map(id -> (Response) PostResourcePassportResponse.respond201WithApplicationJson(entity)));
+  }
+
+  @Override
+  public void getResourcePassport(String after, int limit, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourcePassport", asyncResultHandler, () -> daoRegistry.getPassportDao().getPage(after, limit)
+      .map(passports -> (Response) GetResourcePassportResponse.respond200WithApplicationJson(new PassportCollection()
+        .withPassports(passports)
+        .withTotalRecords(passports.size()))));
+  }
+
   @Override
   public void getResourcePassportById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    vertxContext.runOnContext(c -> {
-      try {
-        passportDao.getById(id)
-          .map(ar -> (Response) GetResourcePassportByIdResponse.respond200WithApplicationJson(ar.get()))
-          .otherwise(ExceptionHelper::mapExceptionToResponse)
-          .setHandler(asyncResultHandler);
-      } catch (Exception e) {
-        asyncResultHandler.handle(Future.succeededFuture(
-          ExceptionHelper.mapExceptionToResponse(e)));
+    handle("getResourcePassportById", asyncResultHandler, () -> daoRegistry.getPassportDao().getById(id)
+      .map(passport -> (Response) (passport.isPresent() ? GetResourcePassportByIdResponse.respond200WithApplicationJson(passport.get())
+        : GetResourcePassportByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void putResourcePassportById(String id, Passport entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourcePassportById", asyncResultHandler, () -> {
+      if (entity.getId() != null && !entity.getId().equals(id)) {
+        throw new BadRequestException("Record id does not match id in the path");
       }
+      return daoRegistry.getPassportDao().upsert(entity.withId(id))
+        .map(savedId -> (Response) PutResourcePassportByIdResponse.respond204());
     });
   }
 
+  @Override
+  public void deleteResourcePassportById(String id, boolean cascade, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("deleteResourcePassportById", asyncResultHandler, () -> daoRegistry.getPassportDao().delete(id, cascade)
+      .map(deleted -> (Response) (deleted ? DeleteResourcePassportByIdResponse.respond204()
+        : DeleteResourcePassportByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void postResourcePassportBatch(PassportCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourcePassportBatch", asyncResultHandler, () -> daoRegistry.getPassportDao().saveBatch(entity.getPassports())
+      .map(batchResult -> (Response) PostResourcePassportBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void putResourcePassportBatch(PassportCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourcePassportBatch", asyncResultHandler, () -> daoRegistry.getPassportDao().upsertBatch(entity.getPassports())
+      .map(batchResult -> (Response) PutResourcePassportBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void postResourcePassportMget(IdCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourcePassportMget", asyncResultHandler, () -> daoRegistry.getPassportDao().getByIds(entity.getIds())
+      .map(results -> {
+        List<Passport> passports = found(results);
+        return (Response) PostResourcePassportMgetResponse.respond200WithApplicationJson(new PassportCollection()
+          .withPassports(passports)
+          .withMissingIds(missingIds(entity.getIds(), results))
+          .withTotalRecords(passports.size()));
+      }));
+  }
+
   @Override
   public void postResourcePerson(Person entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    vertxContext.runOnContext(v -> {
-      try {
-        personDao.save(entity)
-          .map(ar -> (Response) PostResourcePersonResponse.respond201WithApplicationJson(entity))
-          .otherwise(ExceptionHelper::mapExceptionToResponse)
-          .setHandler(asyncResultHandler);
-      } catch (Exception e) {
-        asyncResultHandler.handle(Future.succeededFuture(ExceptionHelper.mapExceptionToResponse(e)));
-      }
-    });
+    handle("postResourcePerson", asyncResultHandler, () -> daoRegistry.getPersonDao().save(entity)
+      .map(id -> (Response) PostResourcePersonResponse.respond201WithApplicationJson(entity)));
+  }
+
+  @Override
+  public void getResourcePerson(String after, int limit, String passportId, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("getResourcePerson", asyncResultHandler, () -> daoRegistry.getPersonDao().getPage(after, limit, passportId)
+      .map(persons -> (Response) GetResourcePersonResponse.respond200WithApplicationJson(new PersonCollection()
+        .withPersons(persons)
+        .withTotalRecords(persons.size()))));
   }
 
   @Override
   public void getResourcePersonById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    vertxContext.runOnContext(c -> {
-      try {
-        personDao.getById(id)
-          .map(ar -> (Response) GetResourcePersonByIdResponse.respond200WithApplicationJson(ar.get()))
-          .otherwise(ExceptionHelper::mapExceptionToResponse)
-          .setHandler(asyncResultHandler);
-      } catch (Exception e) {
-        asyncResultHandler.handle(Future.succeededFuture(
-          ExceptionHelper.mapExceptionToResponse(e)));
+    handle("getResourcePersonById", asyncResultHandler, () -> daoRegistry.getPersonDao().getById(id)
+      .map(person -> (Response) (person.isPresent() ? GetResourcePersonByIdResponse.respond200WithApplicationJson(person.get())
+        : GetResourcePersonByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void putResourcePersonById(String id, Person entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourcePersonById", asyncResultHandler, () -> {
+      if (entity.getId() != null && !entity.getId().equals(id)) {
+        throw new BadRequestException("Record id does not match id in the path");
       }
+      return daoRegistry.getPersonDao().upsert(entity.withId(id))
+        .map(savedId -> (Response) PutResourcePersonByIdResponse.respond204());
     });
   }
+
+  @Override
+  public void deleteResourcePersonById(String id, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("deleteResourcePersonById", asyncResultHandler, () -> daoRegistry.getPersonDao().delete(id)
+      .map(deleted -> (Response) (deleted ? DeleteResourcePersonByIdResponse.respond204()
+        : DeleteResourcePersonByIdResponse.respond404WithTextPlain("Record not found"))));
+  }
+
+  @Override
+  public void postResourcePersonGraph(PersonGraph entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourcePersonGraph", asyncResultHandler, () -> daoRegistry.getPersonDao().saveWithPassport(entity.getPerson(), entity.getPassport())
+      .map(id -> (Response) PostResourcePersonGraphResponse.respond201WithApplicationJson(entity)));
+  }
+
+  @Override
+  public void postResourcePersonBatch(PersonCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourcePersonBatch", asyncResultHandler, () -> daoRegistry.getPersonDao().saveBatch(entity.getPersons())
+      .map(batchResult -> (Response) PostResourcePersonBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void putResourcePersonBatch(PersonCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("putResourcePersonBatch", asyncResultHandler, () -> daoRegistry.getPersonDao().upsertBatch(entity.getPersons())
+      .map(batchResult -> (Response) PutResourcePersonBatchResponse.respond200WithApplicationJson(batchResult)));
+  }
+
+  @Override
+  public void postResourcePersonMget(IdCollection entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    handle("postResourcePersonMget", asyncResultHandler, () -> daoRegistry.getPersonDao().getByIds(entity.getIds())
+      .map(results -> {
+        List<Person> persons = found(results);
+        return (Response) PostResourcePersonMgetResponse.respond200WithApplicationJson(new PersonCollection()
+          .withPersons(persons)
+          .withMissingIds(missingIds(entity.getIds(), results))
+          .withTotalRecords(persons.size()));
+      }));
+  }
+
+  /**
+   * Starts the endpoint call on the calling context, records its metrics and maps its failure to a response.
+   *
+   * @param endpoint           endpoint name for metrics
+   * @param asyncResultHandler handler of the endpoint response
+   * @param call               starts DAO calls and maps their result to a response
+   */
+  private void handle(String endpoint, Handler<AsyncResult<Response>> asyncResultHandler, Supplier<Future<Response>> call) {
+    Handler<AsyncResult<Response>> responseHandler = RequestMetrics.measure(tenantId, endpoint, asyncResultHandler);
+    try {
+      call.get()
+        .otherwise(ResourceImpl::mapExceptionToResponse)
+        .setHandler(responseHandler);
+    } catch (Exception e) {
+      responseHandler.handle(Future.succeededFuture(mapExceptionToResponse(e)));
+    }
+  }
+
+  private static <T> List<T> found(List<Optional<T>> results) {
+    return results.stream().filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
+  }
+
+  private static <T> List<String> missingIds(List<String> ids, List<Optional<T>> results) {
+    List<String> missingIds = new ArrayList<>();
+    for (int i = 0; i < ids.size(); i++) {
+      if (!results.get(i).isPresent()) {
+        missingIds.add(ids.get(i));
+      }
+    }
+    return missingIds;
+  }
+
+  private static ReferenceCount toReferenceCount(String referencedId, long count) {
+    return new ReferenceCount().withReferencedId(referencedId).withCount((int) Math.min(count, Integer.MAX_VALUE));
+  }
+
+  private static Set<String> parseExpand(String expand) {
+    if (expand == null || expand.trim().isEmpty()) {
+      return Collections.emptySet();
+    }
+    return Arrays.stream(expand.split(",")).map(String::trim).collect(Collectors.toSet());
+  }
+
+  /**
+   * Maps foreign key violations detected by the module itself to 422 the same way as violations reported by the database.
+   */
+  private static Response mapExceptionToResponse(Throwable throwable) {
+    if (throwable instanceof ForeignKeyViolationException) {
+      return Response.status(UNPROCESSABLE_ENTITY)
+        .type(MediaType.TEXT_PLAIN)
+        .entity(throwable.getMessage())
+        .build();
+    }
+    return ExceptionHelper.mapExceptionToResponse(throwable);
+  }
 }
@@ -0,0 +1,22 @@
+package org.folio.services;
+
+import io.vertx.core.Future;
+import org.folio.rest.jaxrs.model.ImportResult;
+
+import java.io.InputStream;
+
+/**
+ * Imports records of all entities from a single stream
+ */
+public interface ImportService {
+
+  /**
+   * Imports newline delimited JSON records, each line holds entity type and the record:
+   * {"entity": "ticket", "record": {...}}. Records are saved in batches, records of referenced
+   * tables are saved before records referencing them regardless of their order in the stream.
+   *
+   * @param ndjson newline delimited JSON stream
+   * @return future with import report
+   */
+  Future<ImportResult> importRecords(InputStream ndjson);
+}
@@ -0,0 +1,316 @@
+package org.folio.services.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import org.folio.dao.DaoRegistry;
+import org.folio.dao.ForeignKey;
+import org.folio.dao.many2many.EmployeeDao;
+import org.folio.dao.many2many.LocationDao;
+import org.folio.dao.many2many.TicketDao;
+import org.folio.dao.one2many.AirPlaneDao;
+import org.folio.dao.one2many.DetailDao;
+import org.folio.dao.one2one.PassportDao;
+import org.folio.dao.one2one.PersonDao;
+import org.folio.rest.jaxrs.model.AirPlane;
+import org.folio.rest.jaxrs.model.BatchItemResult;
+import org.folio.rest.jaxrs.model.BatchResult;
+import org.folio.rest.jaxrs.model.Detail;
+import org.folio.rest.jaxrs.model.Employee;
+import org.folio.rest.jaxrs.model.ImportError;
+import org.folio.rest.jaxrs.model.ImportResult;
+import org.folio.rest.jaxrs.model.Location;
+import org.folio.rest.jaxrs.model.Passport;
+import org.folio.rest.jaxrs.model.Person;
+import org.folio.rest.jaxrs.model.Ticket;
+import org.folio.services.ImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+import static org.folio.dao.AbstractEntityDao.REFERENCE_NOT_FOUND_MESSAGE;
+
+/**
+ * Buffers records of the stream per entity and saves them with DAO batch saves. A full buffer is saved
+ * after buffers of the referenced tables, so references read earlier in the stream are already saved.
+ * Records whose references appear later in the stream are kept aside and retried once the stream is read,
+ * up to {@link #MAX_DEFERRED_RECORDS} of them. Parsed records held by the import are bounded by the buffers
+ * and the deferred records, the stream itself is the request body that RMB reads into memory beforehand.
+ */
+public class ImportServiceImpl implements ImportService {
+
+  static final int BATCH_SIZE = 1000;
+  static final int MAX_DEFERRED_RECORDS = 10000;
+  static final int MAX_REPORTED_ERRORS = 1000;
+  static final String TOO_MANY_DEFERRED_MESSAGE = "Record references a record not saved yet, and "
+    + MAX_DEFERRED_RECORDS + " such records are already kept to be retried after the stream is read";
+
+  private final List<EntityType<?>> entityTypes;
+  private final Map<String, EntityType<?>> entityTypesByName = new HashMap<>();
+
+  public ImportServiceImpl(DaoRegistry daoRegistry) {
+    entityTypes = sortByForeignKeys(Arrays.asList(
+      new EntityType<>("employee", EmployeeDao.TABLE, Collections.emptyList(), Employee.class,
+        entities -> daoRegistry.getEmployeeDao().saveBatch(entities)),
+      new EntityType<>("location", LocationDao.TABLE, Collections.emptyList(), Location.class,
+        entities -> daoRegistry.getLocationDao().saveBatch(entities)),
+      new EntityType<>("ticket", TicketDao.TABLE, TicketDao.FOREIGN_KEYS, Ticket.class,
+        entities -> daoRegistry.getTicketDao().saveBatch(entities)),
+      new EntityType<>("airPlane", AirPlaneDao.TABLE, Collections.emptyList(), AirPlane.class,
+        entities -> daoRegistry.getAirPlaneDao().saveBatch(entities)),
+      new EntityType<>("detail", DetailDao.TABLE, DetailDao.FOREIGN_KEYS, Detail.class,
+        entities -> daoRegistry.getDetailDao().saveBatch(entities)),
+      new EntityType<>("passport", PassportDao.TABLE, Collections.emptyList(), Passport.class,
+        entities -> daoRegistry.getPassportDao().saveBatch(entities)),
+      new EntityType<>("person", PersonDao.TABLE, PersonDao.FOREIGN_KEYS, Person.class,
+        entities -> daoRegistry.getPersonDao().saveBatch(entities))));
+    entityTypes.forEach(entityType -> entityTypesByName.put(entityType.name, entityType));
+  }
+
+  @Override
+  public Future<ImportResult> importRecords(InputStream ndjson) {
+    ImportJob job = new ImportJob(new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8)));
+    Future<Void> readFuture = Future.future();
+    job.readRecords(readFuture);
+    return readFuture
+      .compose(v -> job.flushAll())
+      .compose(v -> job.retryDeferred())
+      .map(v -> job.getResult());
+  }
+
+  /**
+   * Orders entity types so that every type follows the types it references.
+   */
+  static List<EntityType<?>> sortByForeignKeys(List<EntityType<?>> types) {
+    List<EntityType<?>> sorted = new ArrayList<>();
+    Set<String> sortedTables = new HashSet<>();
+    List<EntityType<?>> remaining = new ArrayList<>(types);
+    while (!remaining.isEmpty()) {
+      List<EntityType<?>> ready = remaining.stream()
+        .filter(type -> type.foreignKeys.stream()
+          .allMatch(fk -> fk.getTargetTable().equals(type.table) || sortedTables.contains(fk.getTargetTable())))
+        .collect(toList());
+      if (ready.isEmpty()) {
+        throw new IllegalStateException("Foreign keys between tables are cyclic: "
+          + remaining.stream().map(type -> type.table).collect(toList()));
+      }
+      ready.forEach(type -> sortedTables.add(type.table));
+      sorted.addAll(ready);
+      remaining.removeAll(ready);
+    }
+    return sorted;
+  }
+
+  private static final class EntityType<T> {
+    private final String name;
+    private final String table;
+    private final List<ForeignKey> foreignKeys;
+    private final Class<T> entityClass;
+    private final Function<List<T>, Future<BatchResult>> batchSaver;
+
+    EntityType(String name, String table, List<ForeignKey> foreignKeys, Class<T> entityClass,
+               Function<List<T>, Future<BatchResult>> batchSaver) {
+      this.name = name;
+      this.table = table;
+      this.foreignKeys = foreignKeys;
+      this.entityClass = entityClass;
+      this.batchSaver = batchSaver;
+    }
+
+    Future<BatchResult> saveBatch(List<ImportRecord> records) {
+      return batchSaver.apply(records.stream().map(record -> entityClass.cast(record.entity)).collect(toList()));
+    }
+  }
+
+  private static final class ImportRecord {
+    private final int line;
+    private final String id;
+    private final Object entity;
+
+    ImportRecord(int line, String id, Object entity) {
+      this.line = line;
+      this.id = id;
+      this.entity = entity;
+    }
+  }
+
+  /**
+   * State of a single import
+   */
+  private final class ImportJob {
+    private final BufferedReader reader;
+    private final Map<EntityType<?>, List<ImportRecord>> buffers = new LinkedHashMap<>();
+    private final Map<EntityType<?>, List<ImportRecord>> deferred = new LinkedHashMap<>();
+    private final List<ImportError> errors = new ArrayList<>();
+    private int lineNumber;
+    private int totalRecords;
+    private int createdRecords;
+    private int failedRecords;
+    private int deferredRecords;
+
+    ImportJob(BufferedReader reader) {
+      this.reader = reader;
+      entityTypes.forEach(entityType -> {
+        buffers.put(entityType, new ArrayList<>());
+        deferred.put(entityType, new ArrayList<>());
+      });
+    }
+
+    /**
+     * Reads records until a buffer is full, saves it and continues reading once it is saved.
+     */
+    void readRecords(Future<Void> future) {
+      try {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          lineNumber++;
+          if (line.trim().isEmpty()) {
+            continue;
+          }
+          totalRecords++;
+          EntityType<?> entityType = parse(line);
+          if (entityType != null && buffers.get(entityType).size() >= BATCH_SIZE) {
+            flushUpTo(entityType).setHandler(ar -> {
+              if (ar.failed()) {
+                future.fail(ar.cause());
+              } else {
+                readRecords(future);
+              }
+            });
+            return;
+          }
+        }
+        future.complete();
+      } catch (IOException e) {
+        future.fail(e);
+      }
+    }
+
+    /**
+     * Parses the line and adds the record to the buffer of its entity type.
+     *
+     * @return entity type of the record or null if the line is not a valid record
+     */
+    private EntityType<?> parse(String line) {
+      String entityName = null;
+      try {
+        JsonObject json = new JsonObject(line);
+        entityName = json.getString("entity");
+        JsonObject record = json.getJsonObject("record");
+        EntityType<?> entityType = entityTypesByName.get(entityName);
+        if (entityType == null) {
+          reportError(lineNumber, entityName, null, "Unknown entity type");
+          return null;
+        }
+        if (record == null) {
+          reportError(lineNumber, entityName, null, "Record is missing");
+          return null;
+        }
+        buffers.get(entityType).add(new ImportRecord(lineNumber, record.getString("id"), record.mapTo(entityType.entityClass)));
+        return entityType;
+      } catch (DecodeException | IllegalArgumentException | ClassCastException e) {
+        reportError(lineNumber, entityName, null, "Malformed record: " + e.getMessage());
+        return null;
+      }
+    }
+
+    /**
+     * Saves buffers of the given entity type and of all types preceding it.
+     */
+    private Future<Void> flushUpTo(EntityType<?> lastEntityType) {
+      Future<Void> future = Future.succeededFuture();
+      for (EntityType<?> entityType : entityTypes) {
+        future = future.compose(v -> flush(entityType));
+        if (entityType == lastEntityType) {
+          break;
+        }
+      }
+      return future;
+    }
+
+    Future<Void> flushAll() {
+      Future<Void> future = Future.succeededFuture();
+      for (EntityType<?> entityType : entityTypes) {
+        future = future.compose(v -> flush(entityType));
+      }
+      return future;
+    }
+
+    private Future<Void> flush(EntityType<?> entityType) {
+      List<ImportRecord> records = buffers.get(entityType);
+      if (records.isEmpty()) {
+        return Future.succeededFuture();
+      }
+      buffers.put(entityType, new ArrayList<>());
+      return save(entityType, records, false);
+    }
+
+    /**
+     * Saves records deferred because of missing references, all referenced records of the stream are saved by now.
+     */
+    Future<Void> retryDeferred() {
+      Future<Void> future = Future.succeededFuture();
+      for (EntityType<?> entityType : entityTypes) {
+        List<ImportRecord> records = deferred.get(entityType);
+        for (int from = 0; from < records.size(); from += BATCH_SIZE) {
+          List<ImportRecord> chunk = records.subList(from, Math.min(from + BATCH_SIZE, records.size()));
+          future = future.compose(v -> save(entityType, chunk, true));
+        }
+      }
+      return future;
+    }
+
+    private Future<Void> save(EntityType<?> entityType, List<ImportRecord> records, boolean isRetry) {
+      return entityType.saveBatch(records).map(batchResult -> {
+        List<BatchItemResult> items = batchResult.getItems();
+        for (int i = 0; i < items.size(); i++) {
+          BatchItemResult item = items.get(i);
+          ImportRecord record = records.get(i);
+          if (item.getStatus() == BatchItemResult.Status.CREATED) {
+            createdRecords++;
+          } else if (!isRetry && REFERENCE_NOT_FOUND_MESSAGE.equals(item.getMessage())) {
+            if (deferredRecords < MAX_DEFERRED_RECORDS) {
+              deferred.get(entityType).add(record);
+              deferredRecords++;
+            } else {
+              reportError(record.line, entityType.name, record.id, TOO_MANY_DEFERRED_MESSAGE);
+            }
+          } else {
+            reportError(record.line, entityType.name, record.id, item.getMessage());
+          }
+        }
+        return null;
+      });
+    }
+
+    private void reportError(int line, String entityName, String id, String message) {
+      failedRecords++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(new ImportError().withLine(line).withEntity(entityName).withId(id).withMessage(message));
+      }
+    }
+
+    ImportResult getResult() {
+      return new ImportResult()
+        .withTotalRecords(totalRecords)
+        .withCreatedRecords(createdRecords)
+        .withFailedRecords(failedRecords)
+        .withDeferredRecords(deferredRecords)
+        .withErrors(errors);
+    }
+  }
+}
@@ -0,0 +1,8 @@
+-- Indexes of the uuid columns RMB creates for the foreign keys of schema.json and fills from the documents,
+-- used by DAOs with -Ddao.query.fkColumns=true for lookups, joins and cascading deletes.
+-- Unquoted column names are folded to lower case, e.g. airPlaneId is stored in the airplaneid column.
+
+CREATE INDEX IF NOT EXISTS tickets_employeeid_idx ON tickets (employeeid);
+CREATE INDEX IF NOT EXISTS tickets_locationid_idx ON tickets (locationid);
+CREATE INDEX IF NOT EXISTS details_airplaneid_idx ON details (airplaneid);
+CREATE INDEX IF NOT EXISTS persons_passportid_idx ON persons (passportid);
@@ -0,0 +1,59 @@
+-- Numbers of records referencing a record, kept up to date by triggers on every insert, update and delete
+-- of the referencing tables, so that counts are read by a primary key lookup instead of scanning the table.
+-- Concurrent writes of records referencing the same record queue up on its count row until commit.
+
+CREATE TABLE IF NOT EXISTS details_per_airplane (referenced_id uuid PRIMARY KEY, records_count bigint NOT NULL);
+CREATE TABLE IF NOT EXISTS tickets_per_employee (referenced_id uuid PRIMARY KEY, records_count bigint NOT NULL);
+CREATE TABLE IF NOT EXISTS tickets_per_location (referenced_id uuid PRIMARY KEY, records_count bigint NOT NULL);
+
+-- TG_ARGV[0] is the reference field of the document, TG_ARGV[1] is the counts table in the schema of the triggering table,
+-- which is qualified explicitly as writes do not rely on the search path
+CREATE OR REPLACE FUNCTION count_references() RETURNS trigger AS $$
+DECLARE
+  old_reference uuid;
+  new_reference uuid;
+BEGIN
+  -- OLD is not assigned on insert and NEW is not assigned on delete
+  IF TG_OP <> 'INSERT' THEN
+    old_reference = (OLD.jsonb->>TG_ARGV[0])::uuid;
+  END IF;
+  IF TG_OP <> 'DELETE' THEN
+    new_reference = (NEW.jsonb->>TG_ARGV[0])::uuid;
+  END IF;
+  IF old_reference IS NOT DISTINCT FROM new_reference THEN
+    RETURN NULL;
+  END IF;
+  IF old_reference IS NOT NULL THEN
+    EXECUTE format('UPDATE %I.%I SET records_count = records_count - 1 WHERE referenced_id = $1',
+      TG_TABLE_SCHEMA, TG_ARGV[1])
+      USING old_reference;
+  END IF;
+  IF new_reference IS NOT NULL THEN
+    EXECUTE format('INSERT INTO %1$I.%2$I AS counts (referenced_id, records_count) VALUES ($1, 1) '
+      || 'ON CONFLICT (referenced_id) DO UPDATE SET records_count = counts.records_count + 1', TG_TABLE_SCHEMA, TG_ARGV[1])
+      USING new_reference;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS count_details_per_airplane ON details;
+CREATE TRIGGER count_details_per_airplane AFTER INSERT OR UPDATE OR DELETE ON details
+  FOR EACH ROW EXECUTE PROCEDURE count_references('airPlaneId', 'details_per_airplane');
+DROP TRIGGER IF EXISTS count_tickets_per_employee ON tickets;
+CREATE TRIGGER count_tickets_per_employee AFTER INSERT OR UPDATE OR DELETE ON tickets
+  FOR EACH ROW EXECUTE PROCEDURE count_references('employeeId', 'tickets_per_employee');
+DROP TRIGGER IF EXISTS count_tickets_per_location ON tickets;
+CREATE TRIGGER count_tickets_per_location AFTER INSERT OR UPDATE OR DELETE ON tickets
+  FOR EACH ROW EXECUTE PROCEDURE count_references('locationId', 'tickets_per_location');
+
+-- counts records saved before the triggers existed
+INSERT INTO details_per_airplane (referenced_id, records_count)
+  SELECT (jsonb->>'airPlaneId')::uuid, count(*) FROM details WHERE jsonb->>'airPlaneId' IS NOT NULL GROUP BY 1
+  ON CONFLICT (referenced_id) DO UPDATE SET records_count = EXCLUDED.records_count;
+INSERT INTO tickets_per_employee (referenced_id, records_count)
+  SELECT (jsonb->>'employeeId')::uuid, count(*) FROM tickets WHERE jsonb->>'employeeId' IS NOT NULL GROUP BY 1
+  ON CONFLICT (referenced_id) DO UPDATE SET records_count = EXCLUDED.records_count;
+INSERT INTO tickets_per_location (referenced_id, records_count)
+  SELECT (jsonb->>'locationId')::uuid, count(*) FROM tickets WHERE jsonb->>'locationId' IS NOT NULL GROUP BY 1
+  ON CONFLICT (referenced_id) DO UPDATE SET records_count = EXCLUDED.records_count;
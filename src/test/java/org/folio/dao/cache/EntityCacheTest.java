@@ -0,0 +1,116 @@
+package org.folio.dao.cache;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class EntityCacheTest {
+
+  private static final String AIRPLANES = "airplanes";
+  private static final String DETAILS = "details";
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedRecord() {
+    EntityCache cache = new EntityCache(true, 2, 60000);
+    JsonObject first = record();
+    JsonObject second = record();
+    JsonObject third = record();
+
+    cache.put(AIRPLANES, id(first), first);
+    cache.put(AIRPLANES, id(second), second);
+    cache.get(AIRPLANES, id(first));
+    cache.put(AIRPLANES, id(third), third);
+
+    assertEquals(Optional.of(first), cache.get(AIRPLANES, id(first)));
+    assertFalse(cache.get(AIRPLANES, id(second)).isPresent());
+    assertEquals(Optional.of(third), cache.get(AIRPLANES, id(third)));
+    assertEquals(1, cache.getEvictions());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void shouldExpireRecordAfterTtl() throws InterruptedException {
+    EntityCache cache = new EntityCache(true, 10, 1);
+    JsonObject airPlane = record();
+    cache.put(AIRPLANES, id(airPlane), airPlane);
+
+    Thread.sleep(10);
+
+    assertFalse(cache.get(AIRPLANES, id(airPlane)).isPresent());
+    assertEquals(1, cache.getEvictions());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void shouldInvalidateOnlyWrittenRecord() {
+    EntityCache cache = new EntityCache(true, 10, 60000);
+    JsonObject airPlane = record();
+    JsonObject detail = record().put("airPlaneId", id(airPlane));
+    cache.put(AIRPLANES, id(airPlane), airPlane);
+    cache.put(DETAILS, id(detail), detail);
+
+    cache.invalidate(DETAILS, id(detail));
+
+    assertFalse(cache.get(DETAILS, id(detail)).isPresent());
+    assertEquals(Optional.of(airPlane), cache.get(AIRPLANES, id(airPlane)));
+  }
+
+  @Test
+  public void shouldCacheLoadedRecord() {
+    EntityCache cache = new EntityCache(true, 10, 60000);
+    JsonObject airPlane = record();
+
+    long stamp = cache.stamp(AIRPLANES, id(airPlane));
+    cache.putLoaded(AIRPLANES, id(airPlane), airPlane, stamp);
+
+    assertEquals(Optional.of(airPlane), cache.get(AIRPLANES, id(airPlane)));
+  }
+
+  @Test
+  public void shouldNotCacheLoadedRecordWrittenDuringLoad() {
+    EntityCache cache = new EntityCache(true, 10, 60000);
+    JsonObject loaded = record().put("model", "A380");
+    JsonObject written = loaded.copy().put("model", "A350");
+
+    long stamp = cache.stamp(AIRPLANES, id(loaded));
+    cache.put(AIRPLANES, id(written), written);
+    cache.putLoaded(AIRPLANES, id(loaded), loaded, stamp);
+
+    assertEquals(Optional.of(written), cache.get(AIRPLANES, id(loaded)));
+  }
+
+  @Test
+  public void shouldNotCacheLoadedRecordInvalidatedDuringLoad() {
+    EntityCache cache = new EntityCache(true, 10, 60000);
+    JsonObject airPlane = record();
+
+    long stamp = cache.stamp(AIRPLANES, id(airPlane));
+    cache.invalidate(AIRPLANES, id(airPlane));
+    cache.putLoaded(AIRPLANES, id(airPlane), airPlane, stamp);
+
+    assertFalse(cache.get(AIRPLANES, id(airPlane)).isPresent());
+  }
+
+  @Test
+  public void shouldNotCacheIfDisabled() {
+    EntityCache cache = new EntityCache(false, 10, 60000);
+    JsonObject airPlane = record();
+
+    cache.put(AIRPLANES, id(airPlane), airPlane);
+
+    assertFalse(cache.get(AIRPLANES, id(airPlane)).isPresent());
+  }
+
+  private static JsonObject record() {
+    return new JsonObject().put("id", UUID.randomUUID().toString());
+  }
+
+  private static String id(JsonObject record) {
+    return record.getString("id");
+  }
+}
@@ -0,0 +1,108 @@
+package org.folio.dao.cache;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IdIndexTest {
+
+  private static final String AIRPLANES = "airplanes";
+
+  @Test
+  public void shouldNotKnowMissingIds_IfIdsAreNotLoaded() {
+    IdIndex index = new IdIndex(true);
+
+    assertTrue(index.isNotLoaded(AIRPLANES));
+    assertFalse(index.isKnownMissing(AIRPLANES, randomId()));
+  }
+
+  @Test
+  public void shouldNotKnowMissingIds_IfIdsAreBeingLoaded() {
+    IdIndex index = new IdIndex(true);
+
+    assertTrue(index.startLoading(AIRPLANES));
+
+    assertFalse(index.startLoading(AIRPLANES));
+    assertFalse(index.isKnownMissing(AIRPLANES, randomId()));
+  }
+
+  @Test
+  public void shouldKnowMissingIds_IfIdsAreLoaded() {
+    IdIndex index = new IdIndex(true);
+    String id = randomId();
+    index.startLoading(AIRPLANES);
+    index.add(AIRPLANES, id);
+    index.finishLoading(AIRPLANES);
+
+    assertFalse(index.isKnownMissing(AIRPLANES, id));
+    assertFalse(index.isKnownMissing(AIRPLANES, id.toUpperCase()));
+    assertTrue(index.isKnownMissing(AIRPLANES, randomId()));
+  }
+
+  @Test
+  public void shouldKnowRemovedIdIsMissing() {
+    IdIndex index = new IdIndex(true);
+    String id = randomId();
+    index.startLoading(AIRPLANES);
+    index.add(AIRPLANES, id);
+    index.finishLoading(AIRPLANES);
+
+    index.remove(AIRPLANES, id);
+
+    assertTrue(index.isKnownMissing(AIRPLANES, id));
+  }
+
+  @Test
+  public void shouldNotAddLoadedId_IfRecordWasDeletedWhileLoading() {
+    IdIndex index = new IdIndex(true);
+    String id = randomId();
+    index.startLoading(AIRPLANES);
+
+    index.remove(AIRPLANES, id);
+    index.addLoaded(AIRPLANES, id);
+    index.finishLoading(AIRPLANES);
+
+    assertTrue(index.isKnownMissing(AIRPLANES, id));
+  }
+
+  @Test
+  public void shouldAddLoadedId_IfRecordWasSavedAgainAfterDelete() {
+    IdIndex index = new IdIndex(true);
+    String id = randomId();
+    index.startLoading(AIRPLANES);
+
+    index.remove(AIRPLANES, id);
+    index.add(AIRPLANES, id);
+    index.addLoaded(AIRPLANES, id);
+    index.finishLoading(AIRPLANES);
+
+    assertFalse(index.isKnownMissing(AIRPLANES, id));
+  }
+
+  @Test
+  public void shouldLoadIdsAgain_IfIndexIsInvalidated() {
+    IdIndex index = new IdIndex(true);
+    index.startLoading(AIRPLANES);
+    index.finishLoading(AIRPLANES);
+
+    index.invalidate(AIRPLANES);
+
+    assertTrue(index.isNotLoaded(AIRPLANES));
+    assertFalse(index.isKnownMissing(AIRPLANES, randomId()));
+    assertTrue(index.startLoading(AIRPLANES));
+  }
+
+  @Test
+  public void shouldNotLoadIds_IfDisabled() {
+    IdIndex index = new IdIndex(false);
+
+    assertFalse(index.startLoading(AIRPLANES));
+  }
+
+  private static String randomId() {
+    return UUID.randomUUID().toString();
+  }
+}
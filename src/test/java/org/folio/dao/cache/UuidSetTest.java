@@ -0,0 +1,138 @@
+package org.folio.dao.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UuidSetTest {
+
+  /**
+   * Number of UUIDs that makes the set resize a few times
+   */
+  private static final int MANY = 5000;
+
+  @Test
+  public void shouldContainAddedUuid() {
+    UuidSet set = new UuidSet();
+    UUID uuid = UUID.randomUUID();
+
+    assertTrue(set.add(uuid));
+
+    assertTrue(set.contains(uuid));
+    assertFalse(set.contains(UUID.randomUUID()));
+    assertEquals(1, set.size());
+  }
+
+  @Test
+  public void shouldNotAddUuidTwice() {
+    UuidSet set = new UuidSet();
+    UUID uuid = UUID.randomUUID();
+    set.add(uuid);
+
+    assertFalse(set.add(new UUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())));
+
+    assertEquals(1, set.size());
+  }
+
+  @Test
+  public void shouldNotContainRemovedUuid() {
+    UuidSet set = new UuidSet();
+    UUID uuid = UUID.randomUUID();
+    set.add(uuid);
+
+    assertTrue(set.remove(uuid));
+
+    assertFalse(set.contains(uuid));
+    assertFalse(set.remove(uuid));
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  public void shouldFindCollidingUuids_IfOneOfThemIsRemoved() {
+    UuidSet set = new UuidSet();
+    List<UUID> colliding = collidingUuids(0, 5);
+    colliding.forEach(set::add);
+
+    assertTrue(set.remove(colliding.get(2)));
+
+    assertFalse(set.contains(colliding.get(2)));
+    for (int i = 0; i < colliding.size(); i++) {
+      assertEquals(i != 2, set.contains(colliding.get(i)));
+    }
+    assertEquals(4, set.size());
+  }
+
+  @Test
+  public void shouldShiftBackUuidsWrappedAroundEndOfTable() {
+    UuidSet set = new UuidSet();
+    List<UUID> atLastSlot = collidingUuids(1023, 2);
+    UUID atFirstSlot = collidingUuids(0, 1).get(0);
+    // first UUID takes the last slot, the second one and the UUID of the first slot wrap around
+    set.add(atLastSlot.get(0));
+    set.add(atLastSlot.get(1));
+    set.add(atFirstSlot);
+
+    assertTrue(set.remove(atLastSlot.get(0)));
+
+    assertTrue(set.contains(atLastSlot.get(1)));
+    assertTrue(set.contains(atFirstSlot));
+    assertTrue(set.remove(atFirstSlot));
+    assertTrue(set.contains(atLastSlot.get(1)));
+    assertEquals(1, set.size());
+  }
+
+  @Test
+  public void shouldKeepUuids_IfSetIsResized() {
+    UuidSet set = new UuidSet();
+    List<UUID> uuids = new ArrayList<>();
+    for (int i = 0; i < MANY; i++) {
+      UUID uuid = UUID.randomUUID();
+      uuids.add(uuid);
+      set.add(uuid);
+    }
+
+    assertEquals(MANY, set.size());
+    uuids.forEach(uuid -> assertTrue(set.contains(uuid)));
+
+    for (int i = 0; i < MANY; i += 2) {
+      assertTrue(set.remove(uuids.get(i)));
+    }
+    for (int i = 0; i < MANY; i++) {
+      assertEquals(i % 2 == 1, set.contains(uuids.get(i)));
+    }
+    assertEquals(MANY / 2, set.size());
+  }
+
+  @Test
+  public void shouldKeepCollidingUuids_IfSetIsResized() {
+    UuidSet set = new UuidSet();
+    List<UUID> colliding = collidingUuids(0, 2000);
+    colliding.forEach(set::add);
+
+    for (int i = 0; i < colliding.size(); i += 3) {
+      assertTrue(set.remove(colliding.get(i)));
+    }
+
+    for (int i = 0; i < colliding.size(); i++) {
+      assertEquals(i % 3 != 0, set.contains(colliding.get(i)));
+    }
+  }
+
+  /**
+   * Builds UUIDs sharing the home slot in tables of up to 65536 slots. With zero most significant bits
+   * and least significant bits below 2^32 the hash of a UUID equals its least significant bits.
+   */
+  private static List<UUID> collidingUuids(int slot, int count) {
+    List<UUID> uuids = new ArrayList<>();
+    for (long i = 0; i < count; i++) {
+      uuids.add(new UUID(0, (i << 16) | slot));
+    }
+    return uuids;
+  }
+}
@@ -0,0 +1,131 @@
+package org.folio.dao.util;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@RunWith(VertxUnitRunner.class)
+public class ReadBatcherTest {
+
+  private static final int MAX_BATCH_SIZE = 100;
+
+  private Vertx vertx;
+  private List<List<String>> loadedBatches;
+  private List<JsonObject> records;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    loadedBatches = new ArrayList<>();
+    records = new ArrayList<>();
+  }
+
+  @After
+  public void tearDown(TestContext context) {
+    vertx.close(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void shouldLoadRecordsWithOneQuery_IfLookedUpWithinOneEventLoopTask(TestContext context) {
+    ReadBatcher batcher = new ReadBatcher(vertx, this::selectByIds, MAX_BATCH_SIZE, 0);
+    List<String> ids = Arrays.asList(saveRecord(), saveRecord(), saveRecord());
+
+    vertx.runOnContext(v -> {
+      List<Future> futures = ids.stream().map(batcher::load).collect(Collectors.toList());
+
+      CompositeFuture.all(futures).setHandler(context.asyncAssertSuccess(result -> {
+        context.assertEquals(1, loadedBatches.size());
+        context.assertEquals(new HashSet<>(ids), new HashSet<>(loadedBatches.get(0)));
+        for (int i = 0; i < ids.size(); i++) {
+          Optional<JsonObject> record = result.resultAt(i);
+          context.assertEquals(ids.get(i), record.get().getString("id"));
+        }
+      }));
+    });
+  }
+
+  @Test
+  public void shouldLoadSameIdOnce_IfLookedUpTwice(TestContext context) {
+    ReadBatcher batcher = new ReadBatcher(vertx, this::selectByIds, MAX_BATCH_SIZE, 0);
+    String id = saveRecord();
+
+    vertx.runOnContext(v -> CompositeFuture.all(batcher.load(id), batcher.load(id.toUpperCase()))
+      .setHandler(context.asyncAssertSuccess(result -> {
+        context.assertEquals(Collections.singletonList(Collections.singletonList(id)), loadedBatches);
+        Optional<JsonObject> first = result.resultAt(0);
+        Optional<JsonObject> second = result.resultAt(1);
+        context.assertEquals(id, first.get().getString("id"));
+        context.assertEquals(id, second.get().getString("id"));
+      })));
+  }
+
+  @Test
+  public void shouldReturnEmptyOptional_IfRecordDoesNotExist(TestContext context) {
+    ReadBatcher batcher = new ReadBatcher(vertx, this::selectByIds, MAX_BATCH_SIZE, 0);
+    String existingId = saveRecord();
+    String missingId = UUID.randomUUID().toString();
+
+    vertx.runOnContext(v -> CompositeFuture.all(batcher.load(existingId), batcher.load(missingId))
+      .setHandler(context.asyncAssertSuccess(result -> {
+        context.assertEquals(1, loadedBatches.size());
+        Optional<JsonObject> existing = result.resultAt(0);
+        Optional<JsonObject> missing = result.resultAt(1);
+        context.assertTrue(existing.isPresent());
+        context.assertFalse(missing.isPresent());
+      })));
+  }
+
+  @Test
+  public void shouldLoadBatchAtOnce_IfBatchIsFull(TestContext context) {
+    ReadBatcher batcher = new ReadBatcher(vertx, this::selectByIds, 2, 60000);
+    List<String> ids = Arrays.asList(saveRecord(), saveRecord());
+
+    Future<Optional<JsonObject>> first = batcher.load(ids.get(0));
+    Future<Optional<JsonObject>> second = batcher.load(ids.get(1));
+
+    context.assertEquals(Collections.singletonList(ids), loadedBatches);
+    context.assertTrue(first.result().isPresent());
+    context.assertTrue(second.result().isPresent());
+  }
+
+  @Test
+  public void shouldFailEveryLookup_IfQueryFails(TestContext context) {
+    RuntimeException failure = new RuntimeException("Connection is closed");
+    ReadBatcher batcher = new ReadBatcher(vertx, ids -> Future.failedFuture(failure), 2, 60000);
+
+    Future<Optional<JsonObject>> first = batcher.load(UUID.randomUUID().toString());
+    Future<Optional<JsonObject>> second = batcher.load(UUID.randomUUID().toString());
+
+    context.assertEquals(failure, first.cause());
+    context.assertEquals(failure, second.cause());
+  }
+
+  private String saveRecord() {
+    String id = UUID.randomUUID().toString();
+    records.add(new JsonObject().put("id", id));
+    return id;
+  }
+
+  private Future<List<JsonObject>> selectByIds(List<String> ids) {
+    loadedBatches.add(new ArrayList<>(ids));
+    return Future.succeededFuture(records.stream()
+      .filter(record -> ids.contains(record.getString("id")))
+      .collect(Collectors.toList()));
+  }
+}
@@ -0,0 +1,77 @@
+package org.folio.dao.util;
+
+import io.vertx.core.Future;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SingleFlightTest {
+
+  private static final String KEY = "key";
+
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder collapsed = new LongAdder();
+  private final SingleFlight<String, String> singleFlight = new SingleFlight<>(loads, collapsed);
+
+  @Test
+  public void shouldShareLoadBetweenConcurrentCalls() {
+    Future<String> load = Future.future();
+
+    Future<String> first = singleFlight.execute(KEY, () -> load);
+    Future<String> second = singleFlight.execute(KEY, () -> Future.succeededFuture("second load"));
+    assertFalse(first.isComplete());
+    assertFalse(second.isComplete());
+
+    load.complete("value");
+
+    assertEquals("value", first.result());
+    assertEquals("value", second.result());
+    assertEquals(1, loads.sum());
+    assertEquals(1, collapsed.sum());
+  }
+
+  @Test
+  public void shouldNotShareLoadBetweenKeys() {
+    Future<String> first = singleFlight.execute(KEY, () -> Future.future());
+    Future<String> second = singleFlight.execute("other key", () -> Future.succeededFuture("other value"));
+
+    assertFalse(first.isComplete());
+    assertEquals("other value", second.result());
+    assertEquals(2, loads.sum());
+    assertEquals(0, collapsed.sum());
+  }
+
+  @Test
+  public void shouldFailEveryCallAndStartNewLoad_IfLoadFails() {
+    RuntimeException failure = new RuntimeException("Connection is closed");
+    Future<String> load = Future.future();
+    Future<String> first = singleFlight.execute(KEY, () -> load);
+    Future<String> second = singleFlight.execute(KEY, () -> load);
+
+    load.fail(failure);
+
+    assertSame(failure, first.cause());
+    assertSame(failure, second.cause());
+    Future<String> next = singleFlight.execute(KEY, () -> Future.succeededFuture("value"));
+    assertEquals("value", next.result());
+    assertEquals(2, loads.sum());
+  }
+
+  @Test
+  public void shouldFailAndStartNewLoad_IfLoaderThrows() {
+    RuntimeException failure = new IllegalStateException("Pool is closed");
+
+    Future<String> failed = singleFlight.execute(KEY, () -> {
+      throw failure;
+    });
+
+    assertTrue(failed.failed());
+    assertSame(failure, failed.cause());
+    assertEquals("value", singleFlight.execute(KEY, () -> Future.succeededFuture("value")).result());
+  }
+}
@@ -0,0 +1,109 @@
+package org.folio.dao.util;
+
+import io.vertx.core.Future;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Operations are scheduled outside of a Vert.x context, so a queued operation starts as soon as a slot is released.
+ */
+public class TenantSchedulerTest {
+
+  private static final String TENANT = "scheduler_tenant";
+  private static final String OTHER_TENANT = "scheduler_other_tenant";
+
+  private final List<String> started = new ArrayList<>();
+  private final Map<String, Future<String>> running = new HashMap<>();
+
+  @Test
+  public void shouldQueueOperation_IfTenantLimitIsReached() {
+    TenantScheduler scheduler = new TenantScheduler(true, 10, 2);
+
+    Future<String> first = schedule(scheduler, TENANT, "a1");
+    schedule(scheduler, TENANT, "a2");
+    schedule(scheduler, TENANT, "a3");
+    schedule(scheduler, OTHER_TENANT, "b1");
+
+    assertEquals(Arrays.asList("a1", "a2", "b1"), started);
+
+    complete("a1");
+
+    assertEquals("a1", first.result());
+    assertEquals(Arrays.asList("a1", "a2", "b1", "a3"), started);
+  }
+
+  @Test
+  public void shouldQueueOperation_IfTotalLimitIsReached() {
+    TenantScheduler scheduler = new TenantScheduler(true, 2, 2);
+
+    schedule(scheduler, TENANT, "a1");
+    schedule(scheduler, TENANT, "a2");
+    schedule(scheduler, OTHER_TENANT, "b1");
+
+    assertEquals(Arrays.asList("a1", "a2"), started);
+
+    complete("a2");
+
+    assertEquals(Arrays.asList("a1", "a2", "b1"), started);
+  }
+
+  @Test
+  public void shouldGiveFreeSlotsToWaitingTenantsInTurn() {
+    TenantScheduler scheduler = new TenantScheduler(true, 1, 1);
+    for (int i = 1; i <= 5; i++) {
+      schedule(scheduler, TENANT, "a" + i);
+    }
+    schedule(scheduler, OTHER_TENANT, "b1");
+    schedule(scheduler, OTHER_TENANT, "b2");
+
+    for (int i = 0; i < 7; i++) {
+      complete(started.get(i));
+    }
+
+    assertEquals(Arrays.asList("a1", "a2", "b1", "a3", "b2", "a4", "a5"), started);
+  }
+
+  @Test
+  public void shouldReleaseSlot_IfOperationFails() {
+    TenantScheduler scheduler = new TenantScheduler(true, 1, 1);
+    RuntimeException failure = new RuntimeException("Connection is closed");
+
+    Future<String> failed = scheduler.schedule(TENANT, () -> {
+      throw failure;
+    });
+    Future<String> next = schedule(scheduler, TENANT, "a1");
+
+    assertTrue(failed.failed());
+    assertSame(failure, failed.cause());
+    assertEquals(Collections.singletonList("a1"), started);
+
+    running.get("a1").fail(failure);
+
+    assertSame(failure, next.cause());
+    schedule(scheduler, TENANT, "a2");
+    assertEquals(Arrays.asList("a1", "a2"), started);
+  }
+
+  private Future<String> schedule(TenantScheduler scheduler, String tenantId, String name) {
+    return scheduler.schedule(tenantId, () -> {
+      started.add(name);
+      Future<String> future = Future.future();
+      running.put(name, future);
+      return future;
+    });
+  }
+
+  private void complete(String name) {
+    running.get(name).complete(name);
+  }
+}
@@ -0,0 +1,153 @@
+package org.folio.dao.util;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.folio.dao.ForeignKeyViolationException;
+import org.folio.rest.jaxrs.model.BatchItemResult;
+import org.folio.rest.jaxrs.model.BatchResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.folio.dao.AbstractEntityDao.REFERENCE_NOT_FOUND_MESSAGE;
+
+@RunWith(VertxUnitRunner.class)
+public class WriteBehindQueueTest {
+
+  /**
+   * Delay that does not pass during a test
+   */
+  private static final long LONG_DELAY_MS = 60000;
+
+  private Vertx vertx;
+  private List<List<String>> savedBatches;
+  private List<String> directlySavedIds;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    savedBatches = new ArrayList<>();
+    directlySavedIds = new ArrayList<>();
+  }
+
+  @After
+  public void tearDown(TestContext context) {
+    vertx.close(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void shouldSaveBatch_IfBatchIsFull(TestContext context) {
+    WriteBehindQueue<String> queue = new WriteBehindQueue<>(vertx, this::saveAll, this::saveOne, 3, LONG_DELAY_MS);
+    List<String> ids = randomIds(3);
+
+    List<Future<String>> futures = ids.stream().map(queue::save).collect(Collectors.toList());
+
+    context.assertEquals(Collections.singletonList(ids), savedBatches);
+    for (int i = 0; i < ids.size(); i++) {
+      context.assertTrue(futures.get(i).succeeded());
+      context.assertEquals(ids.get(i), futures.get(i).result());
+    }
+  }
+
+  @Test
+  public void shouldSaveBatch_IfDelayHasPassed(TestContext context) {
+    WriteBehindQueue<String> queue = new WriteBehindQueue<>(vertx, this::saveAll, this::saveOne, 100, 10);
+    List<String> ids = randomIds(2);
+    Async async = context.async(ids.size());
+
+    for (String id : ids) {
+      queue.save(id).setHandler(context.asyncAssertSuccess(savedId -> {
+        context.assertEquals(id, savedId);
+        context.assertEquals(Collections.singletonList(ids), savedBatches);
+        async.countDown();
+      }));
+    }
+  }
+
+  @Test
+  public void shouldFailEveryQueuedSave_IfBatchFails(TestContext context) {
+    RuntimeException failure = new RuntimeException("Connection is closed");
+    WriteBehindQueue<String> queue = new WriteBehindQueue<>(vertx, entities -> Future.failedFuture(failure), this::saveOne, 3, LONG_DELAY_MS);
+
+    List<Future<String>> futures = randomIds(3).stream().map(queue::save).collect(Collectors.toList());
+
+    futures.forEach(future -> {
+      context.assertTrue(future.failed());
+      context.assertEquals(failure, future.cause());
+    });
+  }
+
+  @Test
+  public void shouldFailOnlySaveWithMissingReference(TestContext context) {
+    List<String> ids = randomIds(2);
+    WriteBehindQueue<String> queue = new WriteBehindQueue<>(vertx, entities -> Future.succeededFuture(new BatchResult()
+      .withItems(Arrays.asList(
+        new BatchItemResult().withId(ids.get(0)).withStatus(BatchItemResult.Status.FAILED).withMessage(REFERENCE_NOT_FOUND_MESSAGE),
+        new BatchItemResult().withId(ids.get(1)).withStatus(BatchItemResult.Status.CREATED)))
+      .withTotalRecords(2)), this::saveOne, 2, LONG_DELAY_MS);
+
+    Future<String> missingReferenceSave = queue.save(ids.get(0));
+    Future<String> save = queue.save(ids.get(1));
+
+    context.assertTrue(missingReferenceSave.failed());
+    context.assertTrue(missingReferenceSave.cause() instanceof ForeignKeyViolationException);
+    context.assertTrue(save.succeeded());
+    context.assertEquals(ids.get(1), save.result());
+    context.assertTrue(directlySavedIds.isEmpty());
+  }
+
+  @Test
+  public void shouldFailSaveWithDirectSaveFailure_IfIdIsDuplicated(TestContext context) {
+    String id = UUID.randomUUID().toString();
+    RuntimeException duplicateKeyFailure = new RuntimeException("duplicate key value violates unique constraint");
+    WriteBehindQueue<String> queue = new WriteBehindQueue<>(vertx, entities -> Future.succeededFuture(new BatchResult()
+      .withItems(Arrays.asList(
+        new BatchItemResult().withId(id).withStatus(BatchItemResult.Status.CREATED),
+        new BatchItemResult().withId(id).withStatus(BatchItemResult.Status.FAILED).withMessage("Record id is duplicated within the batch")))
+      .withTotalRecords(2)), entity -> {
+      directlySavedIds.add(entity);
+      return Future.failedFuture(duplicateKeyFailure);
+    }, 2, LONG_DELAY_MS);
+
+    Future<String> save = queue.save(id);
+    Future<String> duplicateSave = queue.save(id);
+
+    context.assertTrue(save.succeeded());
+    context.assertEquals(id, save.result());
+    context.assertEquals(Collections.singletonList(id), directlySavedIds);
+    context.assertTrue(duplicateSave.failed());
+    context.assertEquals(duplicateKeyFailure, duplicateSave.cause());
+  }
+
+  private Future<BatchResult> saveAll(List<String> ids) {
+    savedBatches.add(new ArrayList<>(ids));
+    List<BatchItemResult> items = ids.stream()
+      .map(id -> new BatchItemResult().withId(id).withStatus(BatchItemResult.Status.CREATED))
+      .collect(Collectors.toList());
+    return Future.succeededFuture(new BatchResult().withItems(items).withTotalRecords(items.size()));
+  }
+
+  private Future<String> saveOne(String id) {
+    directlySavedIds.add(id);
+    return Future.succeededFuture(id);
+  }
+
+  private static List<String> randomIds(int count) {
+    List<String> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ids.add(UUID.randomUUID().toString());
+    }
+    return ids;
+  }
+}
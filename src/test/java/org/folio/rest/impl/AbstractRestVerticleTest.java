@@ -23,9 +23,11 @@ public abstract class AbstractRestVerticleTest {
   static final String TENANT_ID = "diku";
   static Vertx vertx;
   static RequestSpecification spec;
+  static RequestSpecification exportSpec;
   private static String USER_ID = UUID.randomUUID().toString();
-  private static int PORT = NetworkUtils.nextFreePort();
+  static int PORT = NetworkUtils.nextFreePort();
   private static int MOCK_PORT = NetworkUtils.nextFreePort();
+  private static int EXPORT_PORT = NetworkUtils.nextFreePort();
   private static String BASE_URL = "http://localhost:";
   private static String OKAPI_URL = BASE_URL + PORT;
   private static String MOCK_URL = BASE_URL + MOCK_PORT;
@@ -41,7 +43,7 @@ public abstract class AbstractRestVerticleTest {
 
     TenantClient tenantClient = new TenantClient(OKAPI_URL, TENANT_ID, "dummy-token");
     DeploymentOptions restVerticleDeploymentOptions = new DeploymentOptions()
-      .setConfig(new JsonObject().put("http.port", PORT));
+      .setConfig(new JsonObject().put("http.port", PORT).put(ExportAPI.PORT_PROPERTY, EXPORT_PORT));
     vertx.deployVerticle(RestVerticle.class.getName(), restVerticleDeploymentOptions, res -> {
       try {
         tenantClient.postTenant(null, res2 -> async.complete());
@@ -57,6 +59,11 @@ public abstract class AbstractRestVerticleTest {
       .addHeader(RestVerticle.OKAPI_USERID_HEADER, USER_ID)
       .addHeader(RestVerticle.OKAPI_HEADER_PREFIX + "-url", MOCK_URL)
       .build();
+
+    exportSpec = new RequestSpecBuilder()
+      .setBaseUri(BASE_URL + EXPORT_PORT)
+      .addHeader(RestVerticle.OKAPI_HEADER_TENANT, TENANT_ID)
+      .build();
   }
 
   @AfterClass
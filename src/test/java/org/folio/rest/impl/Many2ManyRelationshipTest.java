@@ -1,6 +1,8 @@
 package org.folio.rest.impl;
 
 import com.jayway.restassured.RestAssured;
+import com.jayway.restassured.specification.RequestSpecification;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -16,9 +18,16 @@ import org.folio.rest.persist.PostgresClient;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 
 /**
  * Testing m2m relationship built on a top of RMB.
@@ -148,6 +157,236 @@ public class Many2ManyRelationshipTest extends AbstractRestVerticleTest {
       .statusCode(HttpStatus.SC_UNPROCESSABLE_ENTITY);
   }
 
+  /**
+   * Testing m2m expanded read.
+   * 1. Create and save Employee and Location
+   * 2. Create and save Ticket referencing Employee and Location
+   * 3. Get Ticket with expanded Employee and Location
+   * 4. Assert Ticket, Employee and Location
+   */
+  @Test
+  public void shouldReturnTicketWithEmployeeAndLocation_IfExpandIsSpecified() {
+    // given
+    Employee employee = new Employee().withId(UUID.randomUUID().toString()).withName("Bob");
+    Location location = new Location().withId(UUID.randomUUID().toString()).withCaption("Denver");
+    Ticket ticket = new Ticket().withId(UUID.randomUUID().toString()).withEmployeeId(employee.getId())
+      .withLocationId(location.getId());
+    saveEmployee(employee);
+    saveLocation(location);
+    saveTicket(ticket);
+
+    // then
+    RestAssured.given()
+      .spec(spec)
+      .queryParam("expand", "employee,location")
+      .when()
+      .get(TICKET_SERVICE_URL + "/" + ticket.getId())
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("id", is(ticket.getId()))
+      .body("employee.id", is(employee.getId()))
+      .body("employee.name", is(employee.getName()))
+      .body("location.id", is(location.getId()))
+      .body("location.caption", is(location.getCaption()));
+  }
+
+  /**
+   * Testing export.
+   * 1. Create and save 3 Employees
+   * 2. Export first 2 Employees, then the rest starting after the last exported one
+   * 3. Assert all Employees exported once
+   */
+  @Test
+  public void shouldExportEmployeesPageByPage() {
+    // given
+    List<String> ids = new ArrayList<>();
+    for (String name : Arrays.asList("Ann", "Ben", "Cid")) {
+      Employee employee = new Employee().withId(UUID.randomUUID().toString()).withName(name);
+      saveEmployee(employee);
+      ids.add(employee.getId());
+    }
+
+    // when
+    List<String> exportedIds = exportEmployeeIds(null, 2);
+    exportedIds.addAll(exportEmployeeIds(exportedIds.get(exportedIds.size() - 1), 2));
+
+    // then
+    assertThat(exportedIds, containsInAnyOrder(ids.toArray()));
+  }
+
+  /**
+   * Testing export of the whole table.
+   * 1. Create and save 3 Employees
+   * 2. Export Employees without limit
+   * 3. Assert all Employees exported
+   */
+  @Test
+  public void shouldExportAllEmployees_IfLimitIsNotSet() {
+    // given
+    List<String> ids = new ArrayList<>();
+    for (String name : Arrays.asList("Ann", "Ben", "Cid")) {
+      Employee employee = new Employee().withId(UUID.randomUUID().toString()).withName(name);
+      saveEmployee(employee);
+      ids.add(employee.getId());
+    }
+
+    // when
+    List<String> exportedIds = exportEmployeeIds(null, null);
+
+    // then
+    assertThat(exportedIds, containsInAnyOrder(ids.toArray()));
+  }
+
+  @Test
+  public void shouldReturnBadRequest_IfExportStartsAfterMalformedId() {
+    RestAssured.given()
+      .spec(exportSpec)
+      .queryParam("after", "not-a-uuid")
+      .when()
+      .get(EMPLOYEE_SERVICE_URL + "/export")
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  /**
+   * Testing import of Tickets placed in the stream before their Employee and Location.
+   * 1. Create Employee Carl, Location Boston and Ticket to Carl to fly to Boston
+   * 2. Import stream with the Ticket first and a Ticket referencing non-existing Employee
+   * 3. Assert 3 records created and 1 deferred and failed
+   * 4. Get and assert Ticket
+   */
+  @Test
+  public void shouldImportTicketBeforeReferencedRecords() {
+    // given
+    Employee carl = new Employee().withId(UUID.randomUUID().toString()).withName("Carl");
+    Location boston = new Location().withId(UUID.randomUUID().toString()).withCaption("Boston");
+    Ticket ticketToBoston = new Ticket().withId(UUID.randomUUID().toString()).withEmployeeId(carl.getId()).withLocationId(boston.getId());
+    Ticket orphanTicket = new Ticket().withId(UUID.randomUUID().toString()).withEmployeeId(UUID.randomUUID().toString()).withLocationId(boston.getId());
+    String ndjson = String.join("\n",
+      new JsonObject().put("entity", "ticket").put("record", JsonObject.mapFrom(ticketToBoston)).encode(),
+      new JsonObject().put("entity", "ticket").put("record", JsonObject.mapFrom(orphanTicket)).encode(),
+      new JsonObject().put("entity", "employee").put("record", JsonObject.mapFrom(carl)).encode(),
+      new JsonObject().put("entity", "location").put("record", JsonObject.mapFrom(boston)).encode());
+
+    // when
+    RestAssured.given()
+      .spec(spec)
+      .contentType("application/octet-stream")
+      .body(ndjson)
+      .when()
+      .post("/resource/import")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(4))
+      .body("createdRecords", is(3))
+      .body("failedRecords", is(1))
+      .body("deferredRecords", is(1))
+      .body("errors[0].id", is(orphanTicket.getId()))
+      .body("errors[0].line", is(2));
+
+    // then
+    getAndAssertTicket(ticketToBoston);
+  }
+
+  /**
+   * Testing idempotent save.
+   * 1. Put Employee Dan twice
+   * 2. Put Employee with changed name
+   * 3. Get and assert Employee has the changed name
+   */
+  @Test
+  public void shouldCreateAndReplaceEmployeeOnPut() {
+    // given
+    Employee dan = new Employee().withId(UUID.randomUUID().toString()).withName("Dan");
+
+    // when
+    putEmployee(dan);
+    putEmployee(dan);
+    putEmployee(dan.withName("Daniel"));
+
+    // then
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .get(EMPLOYEE_SERVICE_URL + "/" + dan.getId())
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("name", is("Daniel"));
+  }
+
+  private void putEmployee(Employee employee) {
+    RestAssured.given()
+      .spec(spec)
+      .body(employee)
+      .when()
+      .put(EMPLOYEE_SERVICE_URL + "/" + employee.getId())
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+  }
+
+  /**
+   * Testing m2m reverse lookups.
+   * 1. Save Employees Carl and Alice, Locations California and Boston
+   * 2. Save 2 Tickets of Carl to California and 1 Ticket of Carl to Boston
+   * 3. Get and assert Locations of Carl are returned once each
+   * 4. Get and assert Employees of Boston
+   */
+  @Test
+  public void shouldReturnDistinctLocationsOfEmployeeAndEmployeesOfLocation() {
+    // given
+    Employee carl = new Employee().withId(UUID.randomUUID().toString()).withName("Carl");
+    Employee alice = new Employee().withId(UUID.randomUUID().toString()).withName("Alice");
+    Location california = new Location().withId(UUID.randomUUID().toString()).withCaption("California");
+    Location boston = new Location().withId(UUID.randomUUID().toString()).withCaption("Boston");
+    saveEmployee(carl);
+    saveEmployee(alice);
+    saveLocation(california);
+    saveLocation(boston);
+    for (Location location : Arrays.asList(california, california, boston)) {
+      saveTicket(new Ticket().withId(UUID.randomUUID().toString()).withEmployeeId(carl.getId()).withLocationId(location.getId()));
+    }
+
+    // when, then
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .get(EMPLOYEE_SERVICE_URL + "/" + carl.getId() + "/locations")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(2))
+      .body("locations.id", containsInAnyOrder(california.getId(), boston.getId()));
+
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .get(LOCATION_SERVICE_URL + "/" + boston.getId() + "/employees")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(1))
+      .body("employees.id", containsInAnyOrder(carl.getId()));
+  }
+
+  private List<String> exportEmployeeIds(String after, Integer limit) {
+    RequestSpecification request = RestAssured.given().spec(exportSpec);
+    if (limit != null) {
+      request.queryParam("limit", limit);
+    }
+    if (after != null) {
+      request.queryParam("after", after);
+    }
+    String ndjson = request
+      .when()
+      .get(EMPLOYEE_SERVICE_URL + "/export")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .contentType(startsWith("application/x-ndjson"))
+      .extract().body().asString();
+    return Arrays.stream(ndjson.split("\n"))
+      .filter(line -> !line.isEmpty())
+      .map(line -> new JsonObject(line).getString("id"))
+      .collect(Collectors.toList());
+  }
+
   private void getAndAssertTicket(Ticket ticket) {
     RestAssured.given()
       .spec(spec)
@@ -1,6 +1,7 @@
 package org.folio.rest.impl;
 
 import com.jayway.restassured.RestAssured;
+import com.jayway.restassured.specification.RequestSpecification;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -8,14 +9,25 @@ import org.apache.http.HttpStatus;
 import org.folio.dao.one2many.AirPlaneDao;
 import org.folio.dao.one2many.DetailDao;
 import org.folio.rest.jaxrs.model.AirPlane;
+import org.folio.rest.jaxrs.model.AirPlaneGraph;
 import org.folio.rest.jaxrs.model.Detail;
+import org.folio.rest.jaxrs.model.DetailCollection;
 import org.folio.rest.persist.Criteria.Criterion;
 import org.folio.rest.persist.PostgresClient;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 
 /**
@@ -148,6 +160,322 @@ public class One2ManyRelationshipTest extends AbstractRestVerticleTest {
     getAndAssertDetail(leftWing);
   }
 
+  /**
+   * Testing batch save with fk referential integrity.
+   * 1. Create and save AirPlane
+   * 2. Create Details with correct reference, wrong reference and malformed id
+   * 3. Save Details as a batch
+   * 4. Assert per-record statuses
+   * 5. Get and assert saved Detail
+   */
+  @Test
+  public void shouldSaveDetailsBatch_AndReportRecordsWithWrongReference() {
+    // Create and save AirPlane
+    AirPlane a320 = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A320");
+    saveAirPlane(a320);
+    // Create Details with correct reference, wrong reference and malformed id
+    Detail engine = new Detail().withId(UUID.randomUUID().toString()).withCaption("engine")
+      .withAirPlaneId(a320.getId());
+    Detail chassis = new Detail().withId(UUID.randomUUID().toString()).withCaption("chassis")
+      .withAirPlaneId(UUID.randomUUID().toString());
+    Detail cabin = new Detail().withId("not-a-uuid").withCaption("cabin").withAirPlaneId(a320.getId());
+
+    // Save Details as a batch, assert per-record statuses
+    RestAssured.given()
+      .spec(spec)
+      .body(new DetailCollection().withDetails(Arrays.asList(engine, chassis, cabin)))
+      .when()
+      .post(DETAIL_SERVICE_URL + "/batch")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(3))
+      .body("items[0].id", is(engine.getId()))
+      .body("items[0].status", is("CREATED"))
+      .body("items[1].id", is(chassis.getId()))
+      .body("items[1].status", is("FAILED"))
+      .body("items[2].status", is("FAILED"));
+
+    // Get and assert saved Detail
+    getAndAssertDetail(engine);
+  }
+
+  /**
+   * Testing o2m aggregate fetch.
+   * 1. Create and save AirPlane with 2 Details
+   * 2. Get AirPlane with expanded Details
+   * 3. Assert AirPlane and its Details
+   */
+  @Test
+  public void shouldReturnAirPlaneWithDetails_IfExpandIsDetails() {
+    // Create and save AirPlane with 2 Details
+    AirPlane a350 = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A350");
+    Detail leftEngine = new Detail().withId(UUID.randomUUID().toString()).withCaption("left engine").withAirPlaneId(a350.getId());
+    Detail rightEngine = new Detail().withId(UUID.randomUUID().toString()).withCaption("right engine").withAirPlaneId(a350.getId());
+    saveAirPlane(a350);
+    saveDetail(leftEngine);
+    saveDetail(rightEngine);
+
+    // Get AirPlane with expanded Details, assert AirPlane and its Details
+    RestAssured.given()
+      .spec(spec)
+      .queryParam("expand", "details")
+      .when()
+      .get(AIRPLANE_SERVICE_URL + "/" + a350.getId())
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("id", is(a350.getId()))
+      .body("model", is(a350.getModel()))
+      .body("details.size()", is(2))
+      .body("details.id", hasItems(leftEngine.getId(), rightEngine.getId()));
+  }
+
+  /**
+   * Testing o2m graph save.
+   * 1. Create AirPlane with 2 Details without airPlaneId
+   * 2. Save AirPlane and Details with one request
+   * 3. Get and assert AirPlane with expanded Details
+   */
+  @Test
+  public void shouldSaveAirPlaneWithDetailsInOneRequest() {
+    // Create AirPlane with 2 Details
+    AirPlane a380 = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A380");
+    Detail leftWing = new Detail().withId(UUID.randomUUID().toString()).withCaption("left wing");
+    Detail rightWing = new Detail().withId(UUID.randomUUID().toString()).withCaption("right wing");
+
+    // Save AirPlane and Details with one request
+    RestAssured.given()
+      .spec(spec)
+      .body(new AirPlaneGraph().withAirPlane(a380).withDetails(Arrays.asList(leftWing, rightWing)))
+      .when()
+      .post(AIRPLANE_SERVICE_URL + "/graph")
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    // Get and assert AirPlane with expanded Details
+    RestAssured.given()
+      .spec(spec)
+      .queryParam("expand", "details")
+      .when()
+      .get(AIRPLANE_SERVICE_URL + "/" + a380.getId())
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("model", is(a380.getModel()))
+      .body("details.airPlaneId", contains(a380.getId(), a380.getId()))
+      .body("details.id", hasItems(leftWing.getId(), rightWing.getId()));
+  }
+
+  /**
+   * Testing keyset pagination of Details filtered by AirPlane.
+   * 1. Create and save 2 AirPlanes, first with 3 Details, second with 1 Detail
+   * 2. Get first page of 2 Details of the first AirPlane
+   * 3. Get next page starting after the last Detail of the first page
+   * 4. Assert all Details of the first AirPlane returned once
+   */
+  @Test
+  public void shouldReturnDetailsOfAirPlanePageByPage() {
+    // Create and save 2 AirPlanes with Details
+    AirPlane a320 = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A320");
+    AirPlane b737 = new AirPlane().withId(UUID.randomUUID().toString()).withModel("B737");
+    saveAirPlane(a320);
+    saveAirPlane(b737);
+    List<String> a320DetailIds = new ArrayList<>();
+    for (String caption : Arrays.asList("left wing", "right wing", "tail")) {
+      Detail detail = new Detail().withId(UUID.randomUUID().toString()).withCaption(caption).withAirPlaneId(a320.getId());
+      saveDetail(detail);
+      a320DetailIds.add(detail.getId());
+    }
+    saveDetail(new Detail().withId(UUID.randomUUID().toString()).withCaption("tail").withAirPlaneId(b737.getId()));
+
+    // Get Details of the first AirPlane page by page
+    List<String> firstPage = getDetailIds(null, a320.getId());
+    List<String> secondPage = getDetailIds(firstPage.get(firstPage.size() - 1), a320.getId());
+
+    // Assert all Details of the first AirPlane returned once
+    assertThat(firstPage.size(), is(2));
+    List<String> returnedIds = new ArrayList<>(firstPage);
+    returnedIds.addAll(secondPage);
+    assertThat(returnedIds, containsInAnyOrder(a320DetailIds.toArray()));
+  }
+
+  /**
+   * Testing cascading delete.
+   * AirPlane referenced by Details is deleted only together with its Details.
+   * 1. Create and save AirPlane with 2 Details
+   * 2. Try to delete AirPlane without cascade
+   * 3. Delete AirPlane with cascade
+   * 4. Assert Details of the AirPlane are deleted and AirPlane is not found anymore
+   */
+  @Test
+  public void shouldDeleteAirPlaneWithDetails_IfCascadeIsRequested() {
+    // Create and save AirPlane with 2 Details
+    AirPlane airPlane = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A380");
+    saveAirPlane(airPlane);
+    saveDetail(new Detail().withId(UUID.randomUUID().toString()).withCaption("left wing").withAirPlaneId(airPlane.getId()));
+    saveDetail(new Detail().withId(UUID.randomUUID().toString()).withCaption("right wing").withAirPlaneId(airPlane.getId()));
+
+    // Try to delete AirPlane without cascade
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .delete(AIRPLANE_SERVICE_URL + "/" + airPlane.getId())
+      .then()
+      .statusCode(HttpStatus.SC_UNPROCESSABLE_ENTITY);
+
+    // Delete AirPlane with cascade
+    RestAssured.given()
+      .spec(spec)
+      .queryParam("cascade", true)
+      .when()
+      .delete(AIRPLANE_SERVICE_URL + "/" + airPlane.getId())
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+
+    // Assert Details of the AirPlane are deleted and AirPlane is not found anymore
+    assertThat(getDetailIds(null, airPlane.getId()), is(Collections.emptyList()));
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .delete(AIRPLANE_SERVICE_URL + "/" + airPlane.getId())
+      .then()
+      .statusCode(HttpStatus.SC_NOT_FOUND);
+  }
+
+  /**
+   * Testing cascading delete evicts cached Details.
+   * 1. Create and save AirPlane with a Detail
+   * 2. Get the Detail, so it is cached
+   * 3. Delete AirPlane with cascade
+   * 4. Assert the Detail is not found anymore
+   */
+  @Test
+  public void shouldNotFindDetail_IfItsAirPlaneIsDeletedWithCascade() {
+    // Create and save AirPlane with a Detail
+    AirPlane airPlane = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A380");
+    saveAirPlane(airPlane);
+    Detail detail = new Detail().withId(UUID.randomUUID().toString()).withCaption("left wing").withAirPlaneId(airPlane.getId());
+    saveDetail(detail);
+
+    // Get the Detail, so it is cached
+    getAndAssertDetail(detail);
+
+    // Delete AirPlane with cascade
+    RestAssured.given()
+      .spec(spec)
+      .queryParam("cascade", true)
+      .when()
+      .delete(AIRPLANE_SERVICE_URL + "/" + airPlane.getId())
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+
+    // Assert the Detail is not found anymore
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .get(DETAIL_SERVICE_URL + "/" + detail.getId())
+      .then()
+      .statusCode(HttpStatus.SC_NOT_FOUND);
+  }
+
+  /**
+   * Testing GET of a deleted AirPlane.
+   * 1. Create and save AirPlane with a Detail
+   * 2. Get the AirPlane, so it is cached
+   * 3. Delete AirPlane with cascade
+   * 4. Assert the AirPlane is not found anymore, with and without its Details expanded
+   */
+  @Test
+  public void shouldNotFindAirPlane_IfItIsDeletedWithCascade() {
+    // Create and save AirPlane with a Detail
+    AirPlane airPlane = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A380");
+    saveAirPlane(airPlane);
+    saveDetail(new Detail().withId(UUID.randomUUID().toString()).withCaption("left wing").withAirPlaneId(airPlane.getId()));
+
+    // Get the AirPlane, so it is cached
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .get(AIRPLANE_SERVICE_URL + "/" + airPlane.getId())
+      .then()
+      .statusCode(HttpStatus.SC_OK);
+
+    // Delete AirPlane with cascade
+    RestAssured.given()
+      .spec(spec)
+      .queryParam("cascade", true)
+      .when()
+      .delete(AIRPLANE_SERVICE_URL + "/" + airPlane.getId())
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+
+    // Assert the AirPlane is not found anymore, with and without its Details expanded
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .get(AIRPLANE_SERVICE_URL + "/" + airPlane.getId())
+      .then()
+      .statusCode(HttpStatus.SC_NOT_FOUND);
+    RestAssured.given()
+      .spec(spec)
+      .queryParam("expand", "details")
+      .when()
+      .get(AIRPLANE_SERVICE_URL + "/" + airPlane.getId())
+      .then()
+      .statusCode(HttpStatus.SC_NOT_FOUND);
+  }
+
+  /**
+   * Testing maintained counts of Details.
+   * 1. Create and save AirPlane with 2 Details
+   * 2. Delete 1 Detail
+   * 3. Assert number of Details of the AirPlane
+   */
+  @Test
+  public void shouldCountDetailsOfAirPlane() {
+    // Create and save AirPlane with 2 Details
+    AirPlane airPlane = new AirPlane().withId(UUID.randomUUID().toString()).withModel("A350");
+    Detail leftWing = new Detail().withId(UUID.randomUUID().toString()).withCaption("left wing").withAirPlaneId(airPlane.getId());
+    Detail rightWing = new Detail().withId(UUID.randomUUID().toString()).withCaption("right wing").withAirPlaneId(airPlane.getId());
+    saveAirPlane(airPlane);
+    saveDetail(leftWing);
+    saveDetail(rightWing);
+
+    // Delete 1 Detail
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .delete(DETAIL_SERVICE_URL + "/" + leftWing.getId())
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+
+    // Assert number of Details of the AirPlane
+    RestAssured.given()
+      .spec(spec)
+      .when()
+      .get("/resource/stats/airPlane/" + airPlane.getId() + "/details")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("referencedId", is(airPlane.getId()))
+      .body("count", is(1));
+  }
+
+  private List<String> getDetailIds(String after, String airPlaneId) {
+    RequestSpecification request = RestAssured.given().spec(spec)
+      .queryParam("limit", 2)
+      .queryParam("airPlaneId", airPlaneId);
+    if (after != null) {
+      request.queryParam("after", after);
+    }
+    return request
+      .when()
+      .get(DETAIL_SERVICE_URL)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract().body().as(DetailCollection.class)
+      .getDetails().stream()
+      .map(Detail::getId)
+      .collect(Collectors.toList());
+  }
+
   private void getAndAssertAirPlane(AirPlane airPlane) {
     RestAssured.given()
       .spec(spec)
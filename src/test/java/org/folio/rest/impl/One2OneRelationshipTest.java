@@ -7,15 +7,20 @@ import io.vertx.ext.unit.junit.VertxUnitRunner;
 import org.apache.http.HttpStatus;
 import org.folio.dao.one2one.PassportDao;
 import org.folio.dao.one2one.PersonDao;
+import org.folio.rest.jaxrs.model.IdCollection;
 import org.folio.rest.jaxrs.model.Passport;
 import org.folio.rest.jaxrs.model.Person;
+import org.folio.rest.jaxrs.model.PersonCollection;
 import org.folio.rest.persist.Criteria.Criterion;
 import org.folio.rest.persist.PostgresClient;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 
 /**
@@ -144,6 +149,38 @@ public class One2OneRelationshipTest extends AbstractRestVerticleTest {
     getAndAssertPassport(passport);
   }
 
+  /**
+   * Testing metrics of fk violations.
+   * 1. Try to save Person with wrong Passport's UUID
+   * 2. Get metrics
+   * 3. Assert 422 response of the Person endpoint and Person DAO latency are recorded
+   */
+  @Test
+  public void shouldCountForeignKeyViolations_IfReferenceToPassportIsWrong() {
+    // Try to save Person with wrong Passport's UUID
+    Person person = new Person()
+      .withId(UUID.randomUUID().toString()).withHeight(170).withWeight(70)
+      .withPassportId(UUID.randomUUID().toString());
+    RestAssured.given()
+      .spec(spec)
+      .body(person)
+      .when()
+      .post(PERSON_SERVICE_URL)
+      .then()
+      .statusCode(HttpStatus.SC_UNPROCESSABLE_ENTITY);
+
+    // Get metrics, assert fk violation and DAO latency are recorded
+    RestAssured.given()
+      .spec(spec)
+      .accept("text/plain")
+      .when()
+      .get("/metrics")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body(containsString("http_foreign_key_violations_total{tenant=\"" + TENANT_ID + "\",endpoint=\"postResourcePerson\"}"))
+      .body(containsString("dao_method_duration_seconds_count{tenant=\"" + TENANT_ID + "\",table=\"" + PersonDao.TABLE + "\",method=\"save\"}"));
+  }
+
   /**
    * Testing fk uniqueness.
    * Person should not be saved if reference to the Passport is not unique.
@@ -179,6 +216,70 @@ public class One2OneRelationshipTest extends AbstractRestVerticleTest {
     getAndAssertPerson(person1);
   }
 
+  /**
+   * Testing batch upsert with a record violating the unique reference to the Passport.
+   * 1. Create Passport, save it with a Person referring to it
+   * 2. Upsert batch of a Person without Passport and a new Person referring to the same Passport
+   * 3. Assert only the Person referring to the same Passport failed
+   * 4. Get and assert upserted Person
+   */
+  @Test
+  public void shouldUpsertPersonsBatch_AndReportPersonReferringToTakenPassport() {
+    // Create Passport, save it with a Person referring to it
+    Passport passport = new Passport().withId(UUID.randomUUID().toString()).withSeries("KB112233");
+    Person owner = new Person().withId(UUID.randomUUID().toString()).withHeight(180).withWeight(75).withPassportId(passport.getId());
+    savePassport(passport);
+    savePerson(owner);
+    Person personWithoutPassport = new Person().withId(UUID.randomUUID().toString()).withHeight(165).withWeight(60);
+    Person impostor = new Person().withId(UUID.randomUUID().toString()).withHeight(170).withWeight(70).withPassportId(passport.getId());
+
+    // Upsert batch, assert only the Person referring to the same Passport failed
+    RestAssured.given()
+      .spec(spec)
+      .body(new PersonCollection().withPersons(Arrays.asList(personWithoutPassport, impostor)))
+      .when()
+      .put(PERSON_SERVICE_URL + "/batch")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(2))
+      .body("items[0].status", is("CREATED"))
+      .body("items[1].id", is(impostor.getId()))
+      .body("items[1].status", is("FAILED"));
+
+    // Get and assert upserted Person
+    getAndAssertPerson(personWithoutPassport);
+  }
+
+  /**
+   * Testing multi-get.
+   * Persons should be returned in the order of requested ids, absent ids should be listed as missing.
+   * 1. Create and save 2 Persons
+   * 2. Get Persons by their ids and a non-existing id
+   * 3. Assert Persons order and missing id
+   */
+  @Test
+  public void shouldReturnPersonsInRequestedOrder_AndListMissingIds() {
+    // Create and save 2 Persons
+    Person tallPerson = new Person().withId(UUID.randomUUID().toString()).withHeight(190).withWeight(90);
+    Person shortPerson = new Person().withId(UUID.randomUUID().toString()).withHeight(160).withWeight(60);
+    savePerson(tallPerson);
+    savePerson(shortPerson);
+    String missingId = UUID.randomUUID().toString();
+
+    // Get Persons by their ids and a non-existing id, assert Persons order and missing id
+    RestAssured.given()
+      .spec(spec)
+      .body(new IdCollection().withIds(Arrays.asList(shortPerson.getId(), missingId, tallPerson.getId())))
+      .when()
+      .post(PERSON_SERVICE_URL + "/_mget")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(2))
+      .body("persons[0].id", is(shortPerson.getId()))
+      .body("persons[1].id", is(tallPerson.getId()))
+      .body("missingIds", contains(missingId));
+  }
+
   private void getAndAssertPerson(Person person) {
     RestAssured.given()
       .spec(spec)
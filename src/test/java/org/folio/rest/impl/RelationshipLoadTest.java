@@ -0,0 +1,350 @@
+package org.folio.rest.impl;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.http.HttpStatus;
+import org.folio.dao.many2many.EmployeeDao;
+import org.folio.dao.many2many.LocationDao;
+import org.folio.dao.many2many.TicketDao;
+import org.folio.dao.one2many.AirPlaneDao;
+import org.folio.dao.one2many.DetailDao;
+import org.folio.dao.one2one.PassportDao;
+import org.folio.dao.one2one.PersonDao;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.jaxrs.model.AirPlane;
+import org.folio.rest.jaxrs.model.AirPlaneCollection;
+import org.folio.rest.jaxrs.model.Detail;
+import org.folio.rest.jaxrs.model.Employee;
+import org.folio.rest.jaxrs.model.EmployeeCollection;
+import org.folio.rest.jaxrs.model.Location;
+import org.folio.rest.jaxrs.model.LocationCollection;
+import org.folio.rest.jaxrs.model.Passport;
+import org.folio.rest.jaxrs.model.PassportCollection;
+import org.folio.rest.jaxrs.model.Person;
+import org.folio.rest.jaxrs.model.Ticket;
+import org.folio.rest.persist.PostgresClient;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+import org.junit.runners.model.Statement;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Load test replaying o2o, o2m and m2m scenarios against the embedded module.
+ * Referenced records are saved by batches, then referencing records are saved one by one at a fixed
+ * number of requests in flight, so every request pays the foreign key check.
+ * Every phase reports throughput, latency percentiles and responses by status.
+ * <p>
+ * Skipped unless run with {@code -Dload.test=true}, e.g.
+ * {@code mvn test -Dtest=RelationshipLoadTest -Dload.test=true -Dload.test.records=1000000 -Dload.test.concurrency=64}
+ * <ul>
+ * <li>{@code load.test.records} - number of referencing records saved by every scenario, default 100000</li>
+ * <li>{@code load.test.concurrency} - requests in flight, default 16</li>
+ * <li>{@code load.test.recordsPerReference} - referencing records per referenced o2m and m2m record, default 10</li>
+ * <li>{@code load.test.batchSize} - records per batch of referenced records, default 1000</li>
+ * <li>{@code load.test.wrongReferenceEvery} - every n-th record refers to a non-existing record and expects 422,
+ * default 100, 0 switches it off</li>
+ * <li>{@code load.test.maxErrorRate} - share of unexpected responses that fails the test, default 0.001</li>
+ * </ul>
+ */
+@RunWith(VertxUnitRunner.class)
+public class RelationshipLoadTest extends AbstractRestVerticleTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RelationshipLoadTest.class);
+
+  private static final String ENABLED_PROPERTY = "load.test";
+  private static final int RECORDS = Integer.getInteger("load.test.records", 100_000);
+  private static final int CONCURRENCY = Integer.getInteger("load.test.concurrency", 16);
+  private static final int RECORDS_PER_REFERENCE = Integer.getInteger("load.test.recordsPerReference", 10);
+  private static final int BATCH_SIZE = Integer.getInteger("load.test.batchSize", 1000);
+  private static final int WRONG_REFERENCE_EVERY = Integer.getInteger("load.test.wrongReferenceEvery", 100);
+  private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.test.maxErrorRate", "0.001"));
+  private static final long TIMEOUT_MILLIS = 24 * 60 * 60 * 1000L;
+  private static final int REQUEST_TIMEOUT_MILLIS = 60_000;
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  /**
+   * Skips the whole class, including start of embedded Postgres, if load test is not switched on.
+   */
+  @ClassRule
+  public static final TestRule LOAD_TEST_SWITCH = (base, description) -> new Statement() {
+    @Override
+    public void evaluate() throws Throwable {
+      Assume.assumeTrue("Load test runs with -D" + ENABLED_PROPERTY + "=true", Boolean.getBoolean(ENABLED_PROPERTY));
+      base.evaluate();
+    }
+  };
+
+  private static HttpClient client;
+
+  @BeforeClass
+  public static void setUpClient() {
+    client = vertx.createHttpClient(new HttpClientOptions()
+      .setDefaultHost("localhost")
+      .setDefaultPort(PORT)
+      .setKeepAlive(true)
+      .setMaxPoolSize(CONCURRENCY));
+  }
+
+  @AfterClass
+  public static void tearDownClient() {
+    client.close();
+  }
+
+  /**
+   * Saves Passports by batches, then a Person per Passport.
+   */
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void shouldSavePersonsReferringToPassports() throws Exception {
+    long passportIds = newIdPrefix();
+    long personIds = newIdPrefix();
+
+    runPhase("o2o passports", "/resource/passport/batch", batchCount(RECORDS), HttpStatus.SC_OK, batch -> false,
+      batch -> new PassportCollection().withPassports(batchIndexes(batch, RECORDS)
+        .mapToObj(i -> new Passport().withId(id(passportIds, i)).withSeries("LT" + i))
+        .collect(toList())));
+    runPhase("o2o persons", "/resource/person", RECORDS, HttpStatus.SC_CREATED, RelationshipLoadTest::refersToMissingRecord,
+      i -> new Person().withId(id(personIds, i)).withHeight(170).withWeight(70)
+        .withPassportId(refersToMissingRecord(i) ? missingId() : id(passportIds, i)));
+  }
+
+  /**
+   * Saves AirPlanes by batches, then Details spread over the AirPlanes.
+   */
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void shouldSaveDetailsReferringToAirPlanes() throws Exception {
+    int airPlanes = referencedRecordCount();
+    long airPlaneIds = newIdPrefix();
+    long detailIds = newIdPrefix();
+
+    runPhase("o2m airplanes", "/resource/airPlane/batch", batchCount(airPlanes), HttpStatus.SC_OK, batch -> false,
+      batch -> new AirPlaneCollection().withAirPlanes(batchIndexes(batch, airPlanes)
+        .mapToObj(i -> new AirPlane().withId(id(airPlaneIds, i)).withModel("LT-" + i))
+        .collect(toList())));
+    runPhase("o2m details", "/resource/detail", RECORDS, HttpStatus.SC_CREATED, RelationshipLoadTest::refersToMissingRecord,
+      i -> new Detail().withId(id(detailIds, i)).withCaption("detail " + i)
+        .withAirPlaneId(refersToMissingRecord(i) ? missingId() : id(airPlaneIds, i % airPlanes)));
+  }
+
+  /**
+   * Saves Employees and Locations by batches, then Tickets referring to a random Employee and Location.
+   */
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void shouldSaveTicketsReferringToEmployeesAndLocations() throws Exception {
+    int referencedRecords = referencedRecordCount();
+    long employeeIds = newIdPrefix();
+    long locationIds = newIdPrefix();
+    long ticketIds = newIdPrefix();
+
+    runPhase("m2m employees", "/resource/employee/batch", batchCount(referencedRecords), HttpStatus.SC_OK, batch -> false,
+      batch -> new EmployeeCollection().withEmployees(batchIndexes(batch, referencedRecords)
+        .mapToObj(i -> new Employee().withId(id(employeeIds, i)).withName("employee " + i))
+        .collect(toList())));
+    runPhase("m2m locations", "/resource/location/batch", batchCount(referencedRecords), HttpStatus.SC_OK, batch -> false,
+      batch -> new LocationCollection().withLocations(batchIndexes(batch, referencedRecords)
+        .mapToObj(i -> new Location().withId(id(locationIds, i)).withCaption("location " + i))
+        .collect(toList())));
+    runPhase("m2m tickets", "/resource/ticket", RECORDS, HttpStatus.SC_CREATED, RelationshipLoadTest::refersToMissingRecord,
+      i -> new Ticket().withId(id(ticketIds, i))
+        .withEmployeeId(id(employeeIds, ThreadLocalRandom.current().nextInt(referencedRecords)))
+        .withLocationId(refersToMissingRecord(i) ? missingId() : id(locationIds, ThreadLocalRandom.current().nextInt(referencedRecords))));
+  }
+
+  /**
+   * Sends requests keeping {@link #CONCURRENCY} of them in flight, logs the report and asserts the error rate.
+   *
+   * @param name           phase name used in the report
+   * @param uri            uri requests are posted to
+   * @param requests       number of requests
+   * @param expectedStatus status of accepted requests
+   * @param rejected       tells whether request of the given index should be rejected with 422
+   * @param body           creates body of request of the given index
+   */
+  private void runPhase(String name, String uri, int requests, int expectedStatus, IntPredicate rejected,
+                        IntFunction<Object> body) throws Exception {
+    Phase phase = new Phase(uri, requests, expectedStatus, rejected, body);
+    long start = System.nanoTime();
+    int lanes = Math.min(CONCURRENCY, requests);
+    for (int i = 0; i < lanes; i++) {
+      sendNext(phase);
+    }
+    phase.done.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    long elapsedNanos = System.nanoTime() - start;
+
+    LOGGER.info(phase.report(name, elapsedNanos));
+    double errorRate = requests == 0 ? 0 : (double) phase.errors.sum() / requests;
+    assertTrue(String.format("%s error rate %.4f exceeds %.4f, first unexpected response: %s", name, errorRate, MAX_ERROR_RATE, phase.firstError),
+      errorRate <= MAX_ERROR_RATE);
+  }
+
+  private void sendNext(Phase phase) {
+    int index = phase.next.getAndIncrement();
+    if (index >= phase.requests) {
+      if (phase.finished.incrementAndGet() == Math.min(CONCURRENCY, phase.requests)) {
+        phase.done.complete(null);
+      }
+      return;
+    }
+    String body = JsonObject.mapFrom(phase.body.apply(index)).encode();
+    long start = System.nanoTime();
+    client.post(phase.uri, response -> response.bodyHandler(responseBody -> {
+      phase.record(index, System.nanoTime() - start, response.statusCode(), responseBody.toString());
+      sendNext(phase);
+    }))
+      .exceptionHandler(e -> {
+        phase.record(index, System.nanoTime() - start, -1, e.toString());
+        sendNext(phase);
+      })
+      .setTimeout(REQUEST_TIMEOUT_MILLIS)
+      .putHeader(RestVerticle.OKAPI_HEADER_TENANT, TENANT_ID)
+      .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+      .putHeader(HttpHeaders.ACCEPT, "application/json, text/plain")
+      .end(body);
+  }
+
+  private static int referencedRecordCount() {
+    return Math.max(1, RECORDS / RECORDS_PER_REFERENCE);
+  }
+
+  private static int batchCount(int records) {
+    return (records + BATCH_SIZE - 1) / BATCH_SIZE;
+  }
+
+  private static IntStream batchIndexes(int batch, int records) {
+    return IntStream.range(batch * BATCH_SIZE, Math.min((batch + 1) * BATCH_SIZE, records));
+  }
+
+  private static boolean refersToMissingRecord(int index) {
+    return WRONG_REFERENCE_EVERY > 0 && index % WRONG_REFERENCE_EVERY == WRONG_REFERENCE_EVERY - 1;
+  }
+
+  /**
+   * Ids are derived from a random prefix and record index, so millions of them are not kept in memory.
+   */
+  private static long newIdPrefix() {
+    return ThreadLocalRandom.current().nextLong();
+  }
+
+  private static String id(long prefix, int index) {
+    return new UUID(prefix, index).toString();
+  }
+
+  private static String missingId() {
+    return UUID.randomUUID().toString();
+  }
+
+  @Override
+  public void clearTables(TestContext context) {
+    Async async = context.async();
+    String schema = PostgresClient.convertToPsqlStandard(TENANT_ID);
+    // truncate does not fire the triggers maintaining counts of referencing records, so counts are truncated too
+    String tables = Arrays.asList(TicketDao.TABLE, EmployeeDao.TABLE, LocationDao.TABLE, DetailDao.TABLE,
+      AirPlaneDao.TABLE, PersonDao.TABLE, PassportDao.TABLE, TicketDao.COUNTS_PER_EMPLOYEE_TABLE,
+      TicketDao.COUNTS_PER_LOCATION_TABLE, DetailDao.COUNTS_PER_AIRPLANE_TABLE).stream()
+      .map(table -> schema + "." + table)
+      .collect(joining(", "));
+    PostgresClient.getInstance(vertx, TENANT_ID).execute("TRUNCATE " + tables, truncateEvent -> {
+      if (truncateEvent.failed()) {
+        context.fail(truncateEvent.cause());
+      } else {
+        async.complete();
+      }
+    });
+  }
+
+  /**
+   * State of a running phase. Latency of request i is written only by the response of request i,
+   * and read after all responses are received.
+   */
+  private static class Phase {
+    private final String uri;
+    private final int requests;
+    private final int expectedStatus;
+    private final IntPredicate rejected;
+    private final IntFunction<Object> body;
+    private final long[] latencyNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger finished = new AtomicInteger();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private volatile String firstError;
+
+    private Phase(String uri, int requests, int expectedStatus, IntPredicate rejected, IntFunction<Object> body) {
+      this.uri = uri;
+      this.requests = requests;
+      this.expectedStatus = expectedStatus;
+      this.rejected = rejected;
+      this.body = body;
+      this.latencyNanos = new long[requests];
+    }
+
+    private void record(int index, long nanos, int status, String responseBody) {
+      latencyNanos[index] = nanos;
+      statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+      boolean shouldBeRejected = rejected.test(index);
+      if (shouldBeRejected && status == HttpStatus.SC_UNPROCESSABLE_ENTITY) {
+        rejections.increment();
+      } else if (shouldBeRejected || status != expectedStatus) {
+        errors.increment();
+        if (firstError == null) {
+          firstError = "request " + index + " status " + status + " " + responseBody;
+        }
+      }
+    }
+
+    private String report(String name, long elapsedNanos) {
+      long[] sorted = latencyNanos.clone();
+      Arrays.sort(sorted);
+      double seconds = elapsedNanos / 1e9;
+      StringBuilder report = new StringBuilder()
+        .append(String.format("[%s] %d requests, %d in flight, %.1f s, %.1f req/s, latency ms",
+          name, requests, CONCURRENCY, seconds, requests / seconds));
+      for (double percentile : PERCENTILES) {
+        String label = percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile);
+        report.append(String.format(" p%s=%.2f", label, percentileMillis(sorted, percentile)));
+      }
+      report.append(String.format(" max=%.2f", sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6));
+      report.append(String.format(", rejected with 422 as expected %d, errors %d (%.3f%%), statuses %s",
+        rejections.sum(), errors.sum(), requests == 0 ? 0 : 100.0 * errors.sum() / requests, new TreeMap<>(statusCounts)));
+      return report.toString();
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+      int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+      return sorted[Math.max(0, index)] / 1e6;
+    }
+  }
+}